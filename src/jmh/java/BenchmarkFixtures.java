@@ -0,0 +1,299 @@
+import model.Bonus;
+import model.FireType;
+import model.Move;
+import model.PlayerContext;
+import model.Shell;
+import model.Tank;
+import model.TankType;
+import model.Unit;
+import model.World;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+
+/**
+ * Benchmark state built from {@link SyntheticGame} worlds. JMH does not accept benchmarks in the default package,
+ * so the benchmarks in {@code benchmarks} create these fixtures by name and call them through {@link Callable}.
+ */
+public final class BenchmarkFixtures {
+    private static final long SEED = 20121031L;
+    private static final int SKIPPED_TICK_COUNT = 200;
+    private static final int FRAME_COUNT = 64;
+    private static final int BUFFER_SIZE_BYTES = 1 << 16;
+
+    private BenchmarkFixtures() {
+    }
+
+    /**
+     * Decodes a PLAYER_CONTEXT message per call.
+     */
+    public static Callable<Object> newDecode(String scenario, boolean recycleModel) {
+        final ByteBuffer[] frames = recordFrames(scenario);
+        final RemoteProcessClient remoteProcessClient = new RemoteProcessClient(frames[0]);
+        remoteProcessClient.setRecycleModel(recycleModel);
+
+        return new Callable<Object>() {
+            private int frameIndex;
+
+            @Override
+            public Object call() throws IOException {
+                ByteBuffer frame = frames[frameIndex++ & (FRAME_COUNT - 1)];
+                frame.rewind();
+                remoteProcessClient.setInput(frame);
+                return remoteProcessClient.readPlayerContext();
+            }
+        };
+    }
+
+    /**
+     * Encodes the moves of the scenario's team per call.
+     */
+    public static Callable<Object> newEncode(String scenario) {
+        int teamSize = SyntheticGame.create(scenario, 1, SEED).getTeamSize();
+        final RemoteProcessClient remoteProcessClient = new RemoteProcessClient(ByteBuffer.allocate(0));
+        final Move[] moves = new Move[teamSize];
+
+        for (int moveIndex = 0; moveIndex < teamSize; ++moveIndex) {
+            Move move = new Move();
+            move.setLeftTrackPower(1.0D);
+            move.setRightTrackPower(-0.75D);
+            move.setTurretTurn(0.5D * moveIndex);
+            move.setFireType(FireType.PREMIUM_PREFERRED);
+            moves[moveIndex] = move;
+        }
+
+        return new Callable<Object>() {
+            @Override
+            public Object call() throws IOException {
+                remoteProcessClient.writeMoves(moves);
+                return moves;
+            }
+        };
+    }
+
+    /**
+     * Runs MyStrategy for every tank of the team per call through a sequential StrategyExecutor, the way Runner
+     * does.
+     */
+    public static Callable<Object> newStrategyTick(String scenario) throws IOException {
+        ByteBuffer[] frames = recordFrames(scenario);
+        final PlayerContext[] playerContexts = new PlayerContext[FRAME_COUNT];
+
+        for (int frameIndex = 0; frameIndex < FRAME_COUNT; ++frameIndex) {
+            playerContexts[frameIndex] = new RemoteProcessClient(frames[frameIndex]).readPlayerContext();
+        }
+
+        final int teamSize = playerContexts[0].getTanks().length;
+        Strategy[] strategies = new Strategy[teamSize];
+
+        for (int strategyIndex = 0; strategyIndex < teamSize; ++strategyIndex) {
+            strategies[strategyIndex] = new MyStrategy();
+            strategies[strategyIndex].selectTank(strategyIndex, teamSize);
+        }
+
+        final StrategyExecutor strategyExecutor = new StrategyExecutor(strategies, false);
+        final Move[] moves = new Move[teamSize];
+
+        return new Callable<Object>() {
+            private int frameIndex;
+
+            @Override
+            public Object call() {
+                PlayerContext playerContext = playerContexts[frameIndex++ & (FRAME_COUNT - 1)];
+                strategyExecutor.move(playerContext.getTanks(), playerContext.getWorld(), moves);
+                return moves;
+            }
+        };
+    }
+
+    /**
+     * Runs a batch kernel for the alive team of a decoded tick per call: {@code nearestBonus} and
+     * {@code dangerShells} for every alive tank of ours, {@code distances} once for all tank pairs. The
+     * {@code objects} layout walks the model objects the way BaseStrategyImpl does, {@code columns} runs the
+     * WorldColumns kernel on a snapshot taken in advance and {@code columnsWithUpdate} takes the snapshot first.
+     */
+    public static Callable<Object> newKernel(String scenario, final String kernel, final String layout)
+            throws IOException {
+        ByteBuffer[] frames = recordFrames(scenario);
+        final World[] worlds = new World[FRAME_COUNT];
+        final WorldView[] views = new WorldView[FRAME_COUNT];
+        final WorldColumns[] columns = new WorldColumns[FRAME_COUNT];
+        int maxTankCount = 0;
+        int maxShellCount = 0;
+
+        for (int frameIndex = 0; frameIndex < FRAME_COUNT; ++frameIndex) {
+            worlds[frameIndex] = new RemoteProcessClient(frames[frameIndex]).readPlayerContext().getWorld();
+            views[frameIndex] = new WorldView(worlds[frameIndex], new SpatialGrid());
+            columns[frameIndex] = new WorldColumns();
+            columns[frameIndex].update(worlds[frameIndex]);
+            maxTankCount = Math.max(maxTankCount, worlds[frameIndex].getTanks().length);
+            maxShellCount = Math.max(maxShellCount, worlds[frameIndex].getShells().length);
+        }
+
+        if (!Arrays.asList("nearestBonus", "dangerShells", "distances").contains(kernel)
+                || !Arrays.asList("objects", "columns", "columnsWithUpdate").contains(layout)) {
+            throw new IllegalArgumentException("Unknown kernel " + kernel + " or layout " + layout + '.');
+        }
+
+        final WorldColumns updatedColumns = new WorldColumns();
+        final int[] shellIndices = new int[maxShellCount];
+        final double[] distances = new double[maxTankCount * maxTankCount];
+
+        return new Callable<Object>() {
+            private int frameIndex;
+
+            @Override
+            public Object call() {
+                int index = frameIndex++ & (FRAME_COUNT - 1);
+                WorldView view = views[index];
+                WorldColumns frameColumns = columns[index];
+
+                if (layout.equals("columnsWithUpdate")) {
+                    updatedColumns.update(worlds[index]);
+                    frameColumns = updatedColumns;
+                }
+
+                if (kernel.equals("distances")) {
+                    if (layout.equals("objects")) {
+                        List<Tank> tanks = view.getTanks();
+                        int tankCount = tanks.size();
+                        for (int first = 0; first < tankCount; ++first) {
+                            Tank tank = tanks.get(first);
+                            for (int second = 0; second < tankCount; ++second) {
+                                distances[first * tankCount + second] = tank.getDistanceTo(tanks.get(second));
+                            }
+                        }
+                    } else {
+                        frameColumns.getDistances(distances);
+                    }
+                    return distances;
+                }
+
+                int res = 0;
+                for (int tankIndex : view.getAliveTeamIndices()) {
+                    if (!layout.equals("objects")) {
+                        res += kernel.equals("nearestBonus")
+                                ? frameColumns.getNearestBonus(tankIndex, view.getAliveEnemyIndices())
+                                : frameColumns.getDangerShells(tankIndex, shellIndices);
+                    } else if (kernel.equals("nearestBonus")) {
+                        res += getNearestBonus(view.getTank(tankIndex), view);
+                    } else {
+                        res += getDangerShells(view.getTank(tankIndex), view).size();
+                    }
+                }
+                return res;
+            }
+        };
+    }
+
+    /**
+     * Loads a decoded tick into a PhysicsSimulator and steps it {@code tickCount} times per call, with fixed track
+     * powers and turret turns that differ between tanks.
+     */
+    public static Callable<Object> newSimulation(String scenario, final int tickCount) throws IOException {
+        ByteBuffer[] frames = recordFrames(scenario);
+        final World[] worlds = new World[FRAME_COUNT];
+
+        for (int frameIndex = 0; frameIndex < FRAME_COUNT; ++frameIndex) {
+            worlds[frameIndex] = new RemoteProcessClient(frames[frameIndex]).readPlayerContext().getWorld();
+        }
+
+        final PhysicsSimulator simulator = new PhysicsSimulator();
+
+        return new Callable<Object>() {
+            private int frameIndex;
+
+            @Override
+            public Object call() {
+                simulator.load(worlds[frameIndex++ & (FRAME_COUNT - 1)]);
+                for (int tankIndex = 0; tankIndex < simulator.getTankCount(); ++tankIndex) {
+                    simulator.setControls(tankIndex, 1.0D, 0.25D * (tankIndex % 8) - 1.0D, 0.01D * tankIndex);
+                }
+                simulator.step(tickCount);
+                return simulator;
+            }
+        };
+    }
+
+    private static int getNearestBonus(Tank self, WorldView view) {
+        int res = -1;
+        double minDist = 1e18;
+        Bonus[] bonuses = view.getWorld().getBonuses();
+        for (int i = 0; i < bonuses.length; ++i) {
+            Bonus bonus = bonuses[i];
+            double dist = self.getSquaredDistanceTo(bonus);
+            if (dist < minDist && isCloser(self, view.getAliveEnemies(), bonus)) {
+                minDist = dist;
+                res = i;
+            }
+        }
+        return res;
+    }
+
+    private static boolean isCloser(Tank tank, List<Tank> others, Unit unit) {
+        for (Tank other : others) {
+            if (other.getSquaredDistanceTo(unit) < tank.getSquaredDistanceTo(unit)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static List<Shell> getDangerShells(Tank self, WorldView view) {
+        List<Shell> res = new ArrayList<Shell>();
+        for (Shell shell : view.getWorld().getShells()) {
+            double angle = shell.getAngleTo(self);
+            double dist = shell.getDistanceTo(self);
+            if (Math.abs(angle) < Math.PI / 2
+                    && Math.abs(dist * Math.sin(angle)) < self.getHeight()) {
+                res.add(shell);
+            }
+        }
+        return res;
+    }
+
+    /**
+     * Plays the scenario with MyStrategy and encodes FRAME_COUNT consecutive ticks after the opening.
+     */
+    static ByteBuffer[] recordFrames(String scenario) {
+        SyntheticGame game = SyntheticGame.create(scenario, SKIPPED_TICK_COUNT + FRAME_COUNT, SEED);
+        int teamSize = game.getTeamSize();
+
+        Strategy[] strategies = new Strategy[teamSize];
+        TankType[] tankTypes = new TankType[teamSize];
+
+        for (int strategyIndex = 0; strategyIndex < teamSize; ++strategyIndex) {
+            strategies[strategyIndex] = new MyStrategy();
+            tankTypes[strategyIndex] = strategies[strategyIndex].selectTank(strategyIndex, teamSize);
+        }
+
+        game.setPlayerTankTypes(tankTypes);
+
+        ByteBuffer[] frames = new ByteBuffer[FRAME_COUNT];
+
+        for (int tick = 0; !game.isOver(); ++tick) {
+            if (tick >= SKIPPED_TICK_COUNT) {
+                ByteBuffer frame = ByteBuffer.allocate(BUFFER_SIZE_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+                RemoteProcessServer.writePlayerContext(frame, game.getPlayerTanks(), game.getWorld());
+                frame.flip();
+                frames[tick - SKIPPED_TICK_COUNT] = frame.slice();
+            }
+
+            Move[] moves = new Move[teamSize];
+
+            for (int strategyIndex = 0; strategyIndex < teamSize; ++strategyIndex) {
+                moves[strategyIndex] = new Move();
+                strategies[strategyIndex].move(game.getPlayerTanks()[strategyIndex], game.getWorld(), moves[strategyIndex]);
+            }
+
+            game.step(moves);
+        }
+
+        return frames;
+    }
+}
@@ -0,0 +1,208 @@
+import model.Bonus;
+import model.Shell;
+import model.Tank;
+import model.World;
+
+import java.util.Arrays;
+
+/**
+ * Primitive column snapshot of the tanks, shells and bonuses of a tick, for kernels that sweep over all units.
+ * Tank, shell and bonus indices are the indices in the world's arrays, so they match {@link WorldView}. The
+ * columns are reused by {@link #update(World)}.
+ * <p>
+ * Only the benchmarks use it, to compare the kernels with the strategy's loops over model objects. The snapshot
+ * copies the whole unit state, as a strategy built on it would, so {@code columnsWithUpdate} measures the full
+ * update cost even though the kernels read only some of the columns.
+ */
+public final class WorldColumns {
+    private int tankCount;
+    private double[] tankXs = new double[0];
+    private double[] tankYs = new double[0];
+    private double[] tankSpeedXs = new double[0];
+    private double[] tankSpeedYs = new double[0];
+    private double[] tankAngles = new double[0];
+    private double[] turretRelativeAngles = new double[0];
+    private double[] tankWidths = new double[0];
+    private double[] tankHeights = new double[0];
+    private int[] crewHealths = new int[0];
+    private int[] hullDurabilities = new int[0];
+
+    private int shellCount;
+    private double[] shellXs = new double[0];
+    private double[] shellYs = new double[0];
+    private double[] shellSpeedXs = new double[0];
+    private double[] shellSpeedYs = new double[0];
+    private double[] shellCosines = new double[0];
+    private double[] shellSines = new double[0];
+
+    private int bonusCount;
+    private double[] bonusXs = new double[0];
+    private double[] bonusYs = new double[0];
+    private int[] bonusTypes = new int[0];
+
+    public void update(World world) {
+        Tank[] tanks = world.getTanks();
+        tankCount = tanks.length;
+        if (tankXs.length < tankCount) {
+            tankXs = Arrays.copyOf(tankXs, tankCount);
+            tankYs = Arrays.copyOf(tankYs, tankCount);
+            tankSpeedXs = Arrays.copyOf(tankSpeedXs, tankCount);
+            tankSpeedYs = Arrays.copyOf(tankSpeedYs, tankCount);
+            tankAngles = Arrays.copyOf(tankAngles, tankCount);
+            turretRelativeAngles = Arrays.copyOf(turretRelativeAngles, tankCount);
+            tankWidths = Arrays.copyOf(tankWidths, tankCount);
+            tankHeights = Arrays.copyOf(tankHeights, tankCount);
+            crewHealths = Arrays.copyOf(crewHealths, tankCount);
+            hullDurabilities = Arrays.copyOf(hullDurabilities, tankCount);
+        }
+
+        for (int tankIndex = 0; tankIndex < tankCount; ++tankIndex) {
+            Tank tank = tanks[tankIndex];
+            tankXs[tankIndex] = tank.getX();
+            tankYs[tankIndex] = tank.getY();
+            tankSpeedXs[tankIndex] = tank.getSpeedX();
+            tankSpeedYs[tankIndex] = tank.getSpeedY();
+            tankAngles[tankIndex] = tank.getAngle();
+            turretRelativeAngles[tankIndex] = tank.getTurretRelativeAngle();
+            tankWidths[tankIndex] = tank.getWidth();
+            tankHeights[tankIndex] = tank.getHeight();
+            crewHealths[tankIndex] = tank.getCrewHealth();
+            hullDurabilities[tankIndex] = tank.getHullDurability();
+        }
+
+        Shell[] shells = world.getShells();
+        shellCount = shells.length;
+        if (shellXs.length < shellCount) {
+            shellXs = Arrays.copyOf(shellXs, shellCount);
+            shellYs = Arrays.copyOf(shellYs, shellCount);
+            shellSpeedXs = Arrays.copyOf(shellSpeedXs, shellCount);
+            shellSpeedYs = Arrays.copyOf(shellSpeedYs, shellCount);
+            shellCosines = Arrays.copyOf(shellCosines, shellCount);
+            shellSines = Arrays.copyOf(shellSines, shellCount);
+        }
+
+        for (int shellIndex = 0; shellIndex < shellCount; ++shellIndex) {
+            Shell shell = shells[shellIndex];
+            shellXs[shellIndex] = shell.getX();
+            shellYs[shellIndex] = shell.getY();
+            shellSpeedXs[shellIndex] = shell.getSpeedX();
+            shellSpeedYs[shellIndex] = shell.getSpeedY();
+            shellCosines[shellIndex] = StrictMath.cos(shell.getAngle());
+            shellSines[shellIndex] = StrictMath.sin(shell.getAngle());
+        }
+
+        Bonus[] bonuses = world.getBonuses();
+        bonusCount = bonuses.length;
+        if (bonusXs.length < bonusCount) {
+            bonusXs = Arrays.copyOf(bonusXs, bonusCount);
+            bonusYs = Arrays.copyOf(bonusYs, bonusCount);
+            bonusTypes = Arrays.copyOf(bonusTypes, bonusCount);
+        }
+
+        for (int bonusIndex = 0; bonusIndex < bonusCount; ++bonusIndex) {
+            Bonus bonus = bonuses[bonusIndex];
+            bonusXs[bonusIndex] = bonus.getX();
+            bonusYs[bonusIndex] = bonus.getY();
+            bonusTypes[bonusIndex] = bonus.getType().ordinal();
+        }
+    }
+
+    /**
+     * Same choice as {@code BaseStrategyImpl.getNearestBonus()}: the nearest bonus for which none of the rivals is
+     * strictly closer.
+     *
+     * @return index of the bonus or -1
+     */
+    public int getNearestBonus(int tankIndex, int[] rivalIndices) {
+        double x = tankXs[tankIndex];
+        double y = tankYs[tankIndex];
+        int res = -1;
+        double minSquaredDist = Double.POSITIVE_INFINITY;
+
+        for (int bonusIndex = 0; bonusIndex < bonusCount; ++bonusIndex) {
+            double dx = bonusXs[bonusIndex] - x;
+            double dy = bonusYs[bonusIndex] - y;
+            double squaredDist = dx * dx + dy * dy;
+
+            if (squaredDist < minSquaredDist && isCloser(squaredDist, bonusIndex, rivalIndices)) {
+                minSquaredDist = squaredDist;
+                res = bonusIndex;
+            }
+        }
+
+        return res;
+    }
+
+    /**
+     * Selects the shells flying towards the tank whose course passes within its height from its center, as
+     * {@code BaseStrategyImpl.getDangerShells()} does with angles. Here the offset of the tank is projected on
+     * the shell's direction instead.
+     *
+     * @param shellIndices receives the indices of the selected shells; needs room for {@link #getShellCount()}
+     * @return number of selected shells
+     */
+    public int getDangerShells(int tankIndex, int[] shellIndices) {
+        double x = tankXs[tankIndex];
+        double y = tankYs[tankIndex];
+        double height = tankHeights[tankIndex];
+        int count = 0;
+
+        for (int shellIndex = 0; shellIndex < shellCount; ++shellIndex) {
+            double dx = x - shellXs[shellIndex];
+            double dy = y - shellYs[shellIndex];
+            double cos = shellCosines[shellIndex];
+            double sin = shellSines[shellIndex];
+
+            if (dx * cos + dy * sin > 0.0D && Math.abs(dy * cos - dx * sin) < height) {
+                shellIndices[count++] = shellIndex;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Fills {@code distances} with the distances between all tanks, row by row.
+     *
+     * @param distances needs room for {@code getTankCount() * getTankCount()} values
+     */
+    public void getDistances(double[] distances) {
+        for (int first = 0; first < tankCount; ++first) {
+            double x = tankXs[first];
+            double y = tankYs[first];
+            distances[first * tankCount + first] = 0.0D;
+
+            for (int second = first + 1; second < tankCount; ++second) {
+                double dx = tankXs[second] - x;
+                double dy = tankYs[second] - y;
+                double dist = Math.sqrt(dx * dx + dy * dy);
+                distances[first * tankCount + second] = dist;
+                distances[second * tankCount + first] = dist;
+            }
+        }
+    }
+
+    public int getTankCount() {
+        return tankCount;
+    }
+
+    public int getShellCount() {
+        return shellCount;
+    }
+
+    private boolean isCloser(double squaredDist, int bonusIndex, int[] rivalIndices) {
+        double x = bonusXs[bonusIndex];
+        double y = bonusYs[bonusIndex];
+
+        for (int rivalIndex : rivalIndices) {
+            double dx = tankXs[rivalIndex] - x;
+            double dy = tankYs[rivalIndex] - y;
+
+            if (dx * dx + dy * dy < squaredDist) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+}
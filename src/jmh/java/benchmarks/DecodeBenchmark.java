@@ -0,0 +1,35 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RemoteProcessClient.readPlayerContext() on PLAYER_CONTEXT messages of synthetic games.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class DecodeBenchmark {
+    @Param({"crowded", "oneOnOne", "twoOnOne"})
+    public String scenario;
+
+    @Param({"false", "true"})
+    public boolean recycleModel;
+
+    private Callable<Object> decode;
+
+    @Setup
+    public void setUp() throws Exception {
+        decode = Fixtures.create("newDecode", scenario, recycleModel);
+    }
+
+    @Benchmark
+    public Object readPlayerContext() throws Exception {
+        return decode.call();
+    }
+}
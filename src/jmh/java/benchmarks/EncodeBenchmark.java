@@ -0,0 +1,32 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RemoteProcessClient.writeMoves() of a full team into a discarding client.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class EncodeBenchmark {
+    @Param({"crowded", "oneOnOne", "twoOnOne"})
+    public String scenario;
+
+    private Callable<Object> encode;
+
+    @Setup
+    public void setUp() throws Exception {
+        encode = Fixtures.create("newEncode", scenario);
+    }
+
+    @Benchmark
+    public Object writeMoves() throws Exception {
+        return encode.call();
+    }
+}
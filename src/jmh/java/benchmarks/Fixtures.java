@@ -0,0 +1,28 @@
+package benchmarks;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.Callable;
+
+/**
+ * Creates fixtures from the default-package BenchmarkFixtures class, which can't be imported here.
+ */
+final class Fixtures {
+    private Fixtures() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static Callable<Object> create(String factoryName, Object... args) throws Exception {
+        for (Method method : Class.forName("BenchmarkFixtures").getMethods()) {
+            if (method.getName().equals(factoryName)) {
+                try {
+                    return (Callable<Object>) method.invoke(null, args);
+                } catch (InvocationTargetException e) {
+                    throw (Exception) e.getCause();
+                }
+            }
+        }
+
+        throw new IllegalArgumentException("Unknown fixture " + factoryName + '.');
+    }
+}
@@ -0,0 +1,35 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Forward simulation of the tanks and shells of a decoded synthetic tick for a number of ticks.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class PhysicsSimulatorBenchmark {
+    @Param({"crowded", "oneOnOne", "twoOnOne"})
+    public String scenario;
+
+    @Param({"1", "100"})
+    public int tickCount;
+
+    private Callable<Object> simulation;
+
+    @Setup
+    public void setUp() throws Exception {
+        simulation = Fixtures.create("newSimulation", scenario, tickCount);
+    }
+
+    @Benchmark
+    public Object run() throws Exception {
+        return simulation.call();
+    }
+}
@@ -0,0 +1,32 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One tick of MyStrategy.move() calls for the whole team on decoded synthetic worlds.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class StrategyBenchmark {
+    @Param({"crowded", "oneOnOne", "twoOnOne"})
+    public String scenario;
+
+    private Callable<Object> tick;
+
+    @Setup
+    public void setUp() throws Exception {
+        tick = Fixtures.create("newStrategyTick", scenario);
+    }
+
+    @Benchmark
+    public Object move() throws Exception {
+        return tick.call();
+    }
+}
@@ -0,0 +1,38 @@
+package benchmarks;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Batch kernels over the units of a decoded synthetic tick, on the model objects and on WorldColumns.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class WorldColumnsBenchmark {
+    @Param({"crowded", "oneOnOne", "twoOnOne"})
+    public String scenario;
+
+    @Param({"nearestBonus", "dangerShells", "distances"})
+    public String kernel;
+
+    @Param({"objects", "columns", "columnsWithUpdate"})
+    public String layout;
+
+    private Callable<Object> tick;
+
+    @Setup
+    public void setUp() throws Exception {
+        tick = Fixtures.create("newKernel", scenario, kernel, layout);
+    }
+
+    @Benchmark
+    public Object run() throws Exception {
+        return tick.call();
+    }
+}
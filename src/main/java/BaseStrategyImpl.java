@@ -14,14 +14,6 @@ class Point {
     }
 }
 
-class Rectangle {
-    public Point[] Points;
-
-    public Rectangle(Point p1, Point p2, Point p3, Point p4) {
-        Points = new Point[] { p1, p2, p3, p4 };
-    }
-}
-
 class TankDistComparator implements Comparator<Point> {
     protected Tank tank;
 
@@ -35,44 +27,6 @@ class TankDistComparator implements Comparator<Point> {
     }
 }
 
-class EnemiesComparator implements Comparator<Tank> {
-    private static final double MIN_ENEMY_HEALTH = 0.4;
-    private static final double MIN_SHOOT_DIST = 500;
-    private static final double CRITICAL_DIST = 100;
-    private Tank self;
-
-    public EnemiesComparator(Tank self) {
-        this.self = self;
-    }
-
-    // 1 mins first is better to shoot, -1 otherwise
-    public int compare(Tank first, Tank second) {
-        double firstDist = self.getDistanceTo(first);
-        double secondDist = self.getDistanceTo(second);
-        if (firstDist < CRITICAL_DIST) {
-            return 1;
-        }
-        if (secondDist < CRITICAL_DIST) {
-            return -1;
-        }
-
-        double firstHealth = (double) first.getCrewHealth() / first.getCrewMaxHealth();
-        double secondHealth = (double) second.getCrewHealth() / second.getCrewMaxHealth();
-        if (firstHealth <= MIN_ENEMY_HEALTH && secondHealth > MIN_ENEMY_HEALTH) {
-            return 1;
-        } else if (firstHealth > MIN_ENEMY_HEALTH && secondHealth <= MIN_ENEMY_HEALTH) {
-            return -1;
-        }
-
-        double firstAngle = Math.abs(self.getTurretAngleTo(first));
-        double secondAngle = Math.abs(self.getTurretAngleTo(second));
-        if (firstDist <= MIN_SHOOT_DIST && secondDist <= MIN_SHOOT_DIST) {
-            return (int) Math.ceil(secondAngle - firstAngle);
-        }
-        return (int) Math.ceil(secondDist - firstDist);
-    }
-}
-
 public class BaseStrategyImpl {
     protected static final double MIN_SHOOT_ANGLE = PI / 180;
     protected static final double MIN_DRIVE_ANGLE = PI / 6;
@@ -85,17 +39,68 @@ public class BaseStrategyImpl {
     protected static final double YMIN = 20;
     protected static final double MAX_BONUS_DIST = 600;
     protected static final double SHELTER_DIST = 200;
+    private static final double MIN_ENEMY_HEALTH = 0.4;
+    private static final double MIN_SHOOT_DIST = 500;
+    private static final double CRITICAL_DIST = 100;
+    private static final TickBudget UNLIMITED_BUDGET = new TickBudget(0);
 
     protected Tank self;
     protected World world;
+    protected WorldView view;
+    protected DistanceMatrix distances;
     protected Move move;
     protected State state;
+    protected TickBudget budget;
+
+    // per-tick caches, filled on first use after rebind
+    private final List<Tank> aliveTeammates = new ArrayList<Tank>();
+    private final List<Tank> strongerEnemies = new ArrayList<Tank>();
+    private final List<Shell> dangerShells = new ArrayList<Shell>();
+    private final List<Tank> unmodifiableAliveTeammates = Collections.unmodifiableList(aliveTeammates);
+    private final List<Tank> unmodifiableStrongerEnemies = Collections.unmodifiableList(strongerEnemies);
+    private final List<Shell> unmodifiableDangerShells = Collections.unmodifiableList(dangerShells);
+    private boolean aliveTeammatesReady;
+    private boolean strongerEnemiesReady;
+    private boolean dangerShellsReady;
+    private int selfPoint;
+    private int[] strongerEnemyPoints = new int[0];
+
+    // kept between ticks
+    private final SpatialGrid.Query gridQuery = new SpatialGrid.Query();
+    private final LineOfSight lineOfSight = new LineOfSight();
+
+    public BaseStrategyImpl(State state) {
+        this.state = state;
+    }
+
+    public BaseStrategyImpl(Tank self, WorldView view, Move move, State state) {
+        rebind(self, view, move, state);
+    }
 
-    public BaseStrategyImpl(Tank self, World world, Move move, State state) {
+    /**
+     * Binds this long-lived strategy to the next tick. Scratch buffers and caches that don't depend on the tick
+     * are kept.
+     */
+    public void rebind(Tank self, WorldView view, Move move, State state) {
+        rebind(self, view, move, state, UNLIMITED_BUDGET);
+    }
+
+    /**
+     * Same as {@link #rebind(Tank, WorldView, Move, State)} with the budget of the tick, which {@code run()} checks
+     * between its stages.
+     */
+    public void rebind(Tank self, WorldView view, Move move, State state, TickBudget budget) {
+        this.budget = budget;
         this.self = self;
-        this.world = world;
+        this.world = view.getWorld();
+        this.view = view;
+        this.distances = view.getDistances();
         this.move = move;
         this.state = state;
+        selfPoint = distances.getTankPoint(view.indexOf(self));
+        aliveTeammatesReady = false;
+        dangerShellsReady = false;
+        strongerEnemiesReady = false;
     }
 
     protected void driveForward() {
@@ -112,32 +117,6 @@ public class BaseStrategyImpl {
         return tank.getCrewHealth() > 0 && tank.getHullDurability() > 0;
     }
 
-    protected Rectangle getCoordinates(Unit unit) {
-        double xc = unit.getX();
-        double yc = unit.getY();
-        double a = unit.getAngle();
-        double w = unit.getWidth();
-        double h = unit.getHeight();
-
-        double x1 = xc + w / 2 * Math.sin(a) - h / 2 * Math.cos(a);
-        double y1 = yc + h / 2 * Math.sin(a) + w / 2 * Math.cos(a);
-        Point p1 = new Point(x1, y1);
-
-        double x2 = xc + w / 2 * Math.sin(a) + h / 2 * Math.cos(a);
-        double y2 = yc - h / 2 * Math.sin(a) + w / 2 * Math.cos(a);
-        Point p2 = new Point(x2, y2);
-
-        double x3 = xc - w / 2 * Math.sin(a) + h / 2 * Math.cos(a);
-        double y3 = yc - h / 2 * Math.sin(a) - w / 2 * Math.cos(a);
-        Point p3 = new Point(x3, y3);
-
-        double x4 = xc - w / 2 * Math.sin(a) - h / 2 * Math.cos(a);
-        double y4 = yc + h / 2 * Math.sin(a) - w / 2 * Math.cos(a);
-        Point p4 = new Point(x4, y4);
-
-        return new Rectangle(p1, p2, p3, p4);
-    }
-
     protected boolean isInRange(double a, double b, double x) {
         return a <= x && x <= b;
     }
@@ -152,13 +131,12 @@ public class BaseStrategyImpl {
 
     protected int getNearestBonus() {
         int res = -1;
-        double minDist = 1e9;
+        double minDist = 1e18;
         Bonus[] bonuses = world.getBonuses();
-        List<Tank> enemies = getStrongerEnemies();
         for (int i = 0; i < bonuses.length; ++i) {
-            Bonus bonus = bonuses[i];
-            double dist = self.getDistanceTo(bonus);
-            if (dist < minDist && isCloser(self, enemies, bonus)) {
+            int bonusPoint = distances.getBonusPoint(i);
+            double dist = distances.getSquaredDistance(selfPoint, bonusPoint);
+            if (dist < minDist && isCloserThanStrongerEnemies(bonusPoint)) {
                 minDist = dist;
                 res = i;
             }
@@ -168,16 +146,15 @@ public class BaseStrategyImpl {
 
     protected int getNearestBonus(BonusType type) {
         int res = -1;
-        double minDist = 1e9;
+        double minDist = 1e18;
         Bonus[] bonuses = world.getBonuses();
-        List<Tank> enemies = getStrongerEnemies();
         for (int i = 0; i < bonuses.length; ++i) {
-            Bonus bonus = bonuses[i];
-            if (bonus.getType() != type) {
+            if (bonuses[i].getType() != type) {
                 continue;
             }
-            double dist = self.getDistanceTo(bonus);
-            if (dist < minDist && isCloser(self, enemies, bonus)) {
+            int bonusPoint = distances.getBonusPoint(i);
+            double dist = distances.getSquaredDistance(selfPoint, bonusPoint);
+            if (dist < minDist && isCloserThanStrongerEnemies(bonusPoint)) {
                 minDist = dist;
                 res = i;
             }
@@ -277,23 +254,29 @@ public class BaseStrategyImpl {
     }
 
     protected List<Shell> getDangerShells() {
-        List<Shell> res = new ArrayList<Shell>();
-        for (Shell shell : world.getShells()) {
-            double angle = shell.getAngleTo(self);
-            double dist = shell.getDistanceTo(self);
-            if (Math.abs(angle) < PI / 2
-                    && Math.abs(dist * Math.sin(angle)) < self.getHeight()) {
-                res.add(shell);
+        if (!dangerShellsReady) {
+            dangerShells.clear();
+            for (Shell shell : world.getShells()) {
+                double angle = shell.getAngleTo(self);
+                double dist = shell.getDistanceTo(self);
+                if (Math.abs(angle) < PI / 2
+                        && Math.abs(dist * Math.sin(angle)) < self.getHeight()) {
+                    dangerShells.add(shell);
+                }
             }
+            dangerShellsReady = true;
         }
-        return res;
+        return unmodifiableDangerShells;
     }
 
     Shell getNearestShell(List<Shell> shells) {
         Shell res = shells.get(0);
+        double minDist = self.getSquaredDistanceTo(res);
         for (Shell shell : shells) {
-            if (self.getDistanceTo(shell) < self.getDistanceTo(res)) {
+            double dist = self.getSquaredDistanceTo(shell);
+            if (dist < minDist) {
                 res = shell;
+                minDist = dist;
             }
         }
         return res;
@@ -311,11 +294,7 @@ public class BaseStrategyImpl {
     }
 
     protected Point getNearestWall() {
-        List<Point> walls = new ArrayList<Point>();
-        walls.add(new Point(XMIN, world.getHeight() / 2));
-        walls.add(new Point(world.getWidth() - XMIN, world.getHeight() / 2));
-        walls.add(new Point(world.getWidth() / 2, YMIN));
-        walls.add(new Point(world.getWidth() / 2, world.getHeight() - YMIN));
+        List<Point> walls = new ArrayList<Point>(Arrays.asList(distances.getWalls()));
 
         Collections.sort(walls, new TankDistComparator(self));
         for (Point wall : walls) {
@@ -327,161 +306,109 @@ public class BaseStrategyImpl {
     }
 
     protected List<Tank> getAliveTanks() {
-        List<Tank> res = new ArrayList<Tank>();
-        for (Tank tank : world.getTanks()) {
-            if (isAlive(tank)) {
-                res.add(tank);
-            }
-        }
-        return res;
-    }
-
-    protected static List<Tank> getAliveTanks(World world) {
-        List<Tank> res = new ArrayList<Tank>();
-        for (Tank tank : world.getTanks()) {
-            if (isAlive(tank)) {
-                res.add(tank);
-            }
-        }
-        return res;
+        return view.getAliveTanks();
     }
 
     protected List<Tank> getDeadTanks() {
-        List<Tank> res = new ArrayList<Tank>();
-        for (Tank tank : world.getTanks()) {
-            if (!isAlive(tank)) {
-                res.add(tank);
-            }
-        }
-        return res;
+        return view.getDeadTanks();
     }
 
     protected List<Tank> getAliveEnemies() {
-        List<Tank> res = new ArrayList<Tank>();
-        for (Tank tank : getAliveTanks()) {
-            if (!tank.isTeammate()) {
-                res.add(tank);
-            }
-        }
-        return res;
+        return view.getAliveEnemies();
     }
 
     protected List<Tank> getAliveTeammates() {
-        List<Tank> res = new ArrayList<Tank>();
-        for (Tank tank : getAliveTanks()) {
-            if (tank.isTeammate() && tank.getId() != self.getId()) {
-                res.add(tank);
-            }
-        }
-        return res;
-    }
-
-    public static int getAliveTeammates(Tank self, World world) {
-        List<Tank> res = new ArrayList<Tank>();
-        for (Tank tank : getAliveTanks(world)) {
-            if (tank.isTeammate() && tank.getId() != self.getId()) {
-                res.add(tank);
+        if (!aliveTeammatesReady) {
+            aliveTeammates.clear();
+            for (Tank tank : view.getAliveTeam()) {
+                if (tank.getId() != self.getId()) {
+                    aliveTeammates.add(tank);
+                }
             }
+            aliveTeammatesReady = true;
         }
-        return res.size();
+        return unmodifiableAliveTeammates;
     }
 
     protected List<Tank> getAliveTeam() {
-        List<Tank> team = getAliveTeammates();
-        team.add(self);
-        return team;
+        return view.getAliveTeam();
     }
 
     protected List<Tank> getStrongerEnemies() {
-        List<Tank> enemies = getAliveEnemies();
-        List<Tank> res = new ArrayList<Tank>();
-        for (Tank enemy : enemies) {
-            if (isStronger(enemy, self)) {
-                res.add(enemy);
+        if (!strongerEnemiesReady) {
+            strongerEnemies.clear();
+            if (strongerEnemyPoints.length < view.getAliveEnemyIndices().length) {
+                strongerEnemyPoints = new int[view.getAliveEnemyIndices().length];
+            }
+            for (int tankIndex : view.getAliveEnemyIndices()) {
+                Tank enemy = view.getTank(tankIndex);
+                if (isStronger(enemy, self)) {
+                    strongerEnemyPoints[strongerEnemies.size()] = distances.getTankPoint(tankIndex);
+                    strongerEnemies.add(enemy);
+                }
             }
+            strongerEnemiesReady = true;
         }
-        return res;
+        return unmodifiableStrongerEnemies;
     }
 
-    protected boolean isCloser(Tank tank, List<Tank> others, Unit unit) {
-        for (Tank other : others) {
-            if (other.getDistanceTo(unit) < tank.getDistanceTo(unit)) {
+    // no stronger enemy is closer to the point than self
+    private boolean isCloserThanStrongerEnemies(int point) {
+        int count = getStrongerEnemies().size();
+        double selfDist = distances.getSquaredDistance(selfPoint, point);
+        for (int i = 0; i < count; ++i) {
+            if (distances.getSquaredDistance(strongerEnemyPoints[i], point) < selfDist) {
                 return false;
             }
         }
         return true;
     }
 
-    protected List<Unit> getObstacles() {
-        List<Unit> res = new ArrayList<Unit>();
-        res.addAll(getDeadTanks());
-        res.addAll(Arrays.asList(world.getBonuses()));
-        res.addAll(Arrays.asList(world.getObstacles()));
-        return res;
-    }
-
-    protected boolean isObstacle(Tank enemy, Unit obstacle) {
-        if (self.getDistanceTo(enemy) < self.getDistanceTo(obstacle)) {
-            return false;
-        }
-        double enemyAngle = self.getAngleTo(enemy);
-        double[] obstacleAngles = getSortedAngles(obstacle);
-        double minObstacleAngle = obstacleAngles[0];
-        double maxObstacleAngle = obstacleAngles[3];
-        if (maxObstacleAngle - minObstacleAngle > PI) {
-            return enemyAngle <= minObstacleAngle || enemyAngle >= maxObstacleAngle;
-        } else {
-            return minObstacleAngle <= enemyAngle && enemyAngle <= maxObstacleAngle;
-        }
-    }
-
-    protected boolean existObstacle(Tank enemy, List<Unit> obstacles) {
-        for (Unit obstacle : obstacles) {
-            if (isObstacle(enemy, obstacle)) {
-                return true;
+    // only units in the grid cells along the line of fire can hide the enemy
+    protected boolean existObstacle(Tank enemy, SpatialGrid.Query query) {
+        lineOfSight.clear();
+        for (int i = 0; i < query.getCount(); ++i) {
+            Unit obstacle = query.getUnit(i);
+            if (!(obstacle instanceof Tank && obstacle.getId() == self.getId() && isAlive((Tank) obstacle))) {
+                lineOfSight.add(obstacle);
             }
         }
-        return false;
+        return lineOfSight.isBlocked(self.getX(), self.getY(), enemy.getX(), enemy.getY());
     }
 
+    /**
+     * Stops at the first enemy after the budget of the tick runs out and returns the open enemies found so far.
+     */
     protected List<Tank> selectOpenEnemies(List<Tank> enemies) {
         List<Tank> res = new ArrayList<Tank>();
-        List<Unit> obstacles = getObstacles();
-        obstacles.addAll(getAliveTeammates());
+        SpatialGrid grid = view.getGrid();
         for (Tank enemy : enemies) {
-            if (!existObstacle(enemy, obstacles)) {
+            if (budget.isExhausted()) {
+                break;
+            }
+            double dist = self.getDistanceTo(enemy) + grid.getMaxRadius();
+            grid.traceRay(self.getX(), self.getY(), enemy.getX(), enemy.getY(), dist, gridQuery);
+            if (!existObstacle(enemy, gridQuery)) {
                 res.add(enemy);
             }
         }
         return res;
     }
 
-    protected double[] getSortedAngles(Unit unit) {
-        Rectangle rect = getCoordinates(unit);
-        double a1 = self.getAngleTo(rect.Points[0].x, rect.Points[0].y);
-        double a2 = self.getAngleTo(rect.Points[1].x, rect.Points[1].y);
-        double a3 = self.getAngleTo(rect.Points[2].x, rect.Points[2].y);
-        double a4 = self.getAngleTo(rect.Points[3].x, rect.Points[3].y);
-        double[] angles = new double[] { a1, a2, a3, a4 };
-        Arrays.sort(angles);
-        return angles;
-    }
-
-    protected double[] getSortedTurretAngles(Unit unit) {
-        Rectangle rect = getCoordinates(unit);
-        double a1 = self.getTurretAngleTo(rect.Points[0].x, rect.Points[0].y);
-        double a2 = self.getTurretAngleTo(rect.Points[1].x, rect.Points[1].y);
-        double a3 = self.getTurretAngleTo(rect.Points[2].x, rect.Points[2].y);
-        double a4 = self.getTurretAngleTo(rect.Points[3].x, rect.Points[3].y);
-        double[] angles = new double[] { a1, a2, a3, a4 };
-        Arrays.sort(angles);
-        return angles;
-    }
-
     protected Tank getCloserEnemy(Point point) {
-        double selfDist = self.getDistanceTo(point.x, point.y);
+        int landmarkPoint = distances.getLandmarkPoint(point);
+        if (landmarkPoint != -1) {
+            double selfDist = distances.getSquaredDistance(selfPoint, landmarkPoint);
+            for (int tankIndex : view.getAliveEnemyIndices()) {
+                if (distances.getSquaredDistance(distances.getTankPoint(tankIndex), landmarkPoint) < selfDist) {
+                    return view.getTank(tankIndex);
+                }
+            }
+            return null;
+        }
+        double selfDist = self.getSquaredDistanceTo(point.x, point.y);
         for (Tank tank : getAliveEnemies()) {
-            if (tank.getDistanceTo(point.x, point.y) < selfDist) {
+            if (tank.getSquaredDistanceTo(point.x, point.y) < selfDist) {
                 return tank;
             }
         }
@@ -489,20 +416,30 @@ public class BaseStrategyImpl {
     }
 
     protected Tank getCloserTeammate(Point point) {
-        double selfDist = self.getDistanceTo(point.x, point.y);
+        int landmarkPoint = distances.getLandmarkPoint(point);
+        if (landmarkPoint != -1) {
+            double selfDist = distances.getSquaredDistance(selfPoint, landmarkPoint);
+            for (int tankIndex : view.getAliveTeamIndices()) {
+                Tank tank = view.getTank(tankIndex);
+                if (tank.getId() != self.getId()
+                        && distances.getSquaredDistance(distances.getTankPoint(tankIndex), landmarkPoint) < selfDist) {
+                    return tank;
+                }
+            }
+            return null;
+        }
+        double selfDist = self.getSquaredDistanceTo(point.x, point.y);
         for (Tank tank : getAliveTeammates()) {
-            if (tank.getDistanceTo(point.x, point.y) < selfDist) {
+            if (tank.getSquaredDistanceTo(point.x, point.y) < selfDist) {
                 return tank;
             }
         }
         return null;
     }
 
+    // callers sort the result, so every call gets its own copy of the matrix's corners
     protected Point[] getCorners() {
-        return new Point[] { new Point(XMIN, YMIN),
-                new Point(XMIN, world.getHeight() - YMIN),
-                new Point(world.getWidth() - XMIN, YMIN),
-                new Point(world.getWidth() - XMIN, world.getHeight() - YMIN) };
+        return distances.getCorners().clone();
     }
 
     protected Point getNearestCorner() {
@@ -570,11 +507,46 @@ public class BaseStrategyImpl {
         }
     }
 
+    // priorities, highest first: an enemy closer than CRITICAL_DIST (the nearest of them), a weak enemy, an enemy
+    // within MIN_SHOOT_DIST (the one closest to the turret's line), the nearest enemy
+    protected Tank selectTarget(List<Tank> enemies) {
+        Tank res = null;
+        int maxRank = -1;
+        double maxKey = 0;
+        for (Tank enemy : enemies) {
+            double dist = self.getDistanceTo(enemy);
+            int rank;
+            double key;
+            if (dist < CRITICAL_DIST) {
+                rank = 4;
+                key = -dist;
+            } else {
+                double health = (double) enemy.getCrewHealth() / enemy.getCrewMaxHealth();
+                rank = health <= MIN_ENEMY_HEALTH ? 2 : 0;
+                if (dist <= MIN_SHOOT_DIST) {
+                    rank += 1;
+                    key = -Math.abs(self.getTurretAngleTo(enemy));
+                } else {
+                    key = -dist;
+                }
+            }
+            if (rank > maxRank || rank == maxRank && key > maxKey) {
+                res = enemy;
+                maxRank = rank;
+                maxKey = key;
+            }
+        }
+        return res;
+    }
+
     protected Tank getNearestTank(List<Tank> tanks) {
         Tank res = tanks.get(0);
+        double minDist = self.getSquaredDistanceTo(res);
         for (Tank tank : tanks) {
-            if (self.getDistanceTo(tank) < self.getDistanceTo(res)) {
+            double dist = self.getSquaredDistanceTo(tank);
+            if (dist < minDist) {
                 res = tank;
+                minDist = dist;
             }
         }
         return res;
@@ -661,9 +633,7 @@ public class BaseStrategyImpl {
     }
 
     protected boolean existUnit(Point point) {
-        List<Unit> units = new ArrayList<Unit>();
-        units.addAll(Arrays.asList(world.getTanks()));
-        for (Unit unit : units) {
+        for (Unit unit : view.getTanks()) {
             if (unit.getDistanceTo(point.x, point.y) < unit.getWidth()) {
                 return true;
             }
@@ -0,0 +1,139 @@
+import model.Bonus;
+import model.Tank;
+import model.World;
+
+/**
+ * Squared distances between all points of interest of a tick: the tanks, the bonuses and the fixed landmarks of the
+ * map, which are the corners and the middles of the walls the strategy drives to. Points are numbered in that
+ * order, with tanks and bonuses in the order of the world's arrays. Every distance equals
+ * {@code Unit.getSquaredDistanceTo} between the same points, so comparisons give the same answers.
+ * <p>
+ * The matrix is filled once per tick and only read afterwards. Landmarks are created again only when the size of
+ * the world changes, so they can be recognised by identity.
+ */
+public final class DistanceMatrix {
+    private static final int CORNER_COUNT = 4;
+    private static final int WALL_COUNT = 4;
+
+    private Point[] corners = new Point[0];
+    private Point[] walls = new Point[0];
+    private double width = Double.NaN;
+    private double height = Double.NaN;
+
+    private int tankCount;
+    private int bonusCount;
+    private int pointCount;
+    private double[] xs = new double[0];
+    private double[] ys = new double[0];
+    private double[] squaredDistances = new double[0];
+
+    public void update(WorldView view) {
+        World world = view.getWorld();
+        if (world.getWidth() != width || world.getHeight() != height) {
+            width = world.getWidth();
+            height = world.getHeight();
+            corners = new Point[] { new Point(BaseStrategyImpl.XMIN, BaseStrategyImpl.YMIN),
+                    new Point(BaseStrategyImpl.XMIN, height - BaseStrategyImpl.YMIN),
+                    new Point(width - BaseStrategyImpl.XMIN, BaseStrategyImpl.YMIN),
+                    new Point(width - BaseStrategyImpl.XMIN, height - BaseStrategyImpl.YMIN) };
+            walls = new Point[] { new Point(BaseStrategyImpl.XMIN, height / 2),
+                    new Point(width - BaseStrategyImpl.XMIN, height / 2),
+                    new Point(width / 2, BaseStrategyImpl.YMIN),
+                    new Point(width / 2, height - BaseStrategyImpl.YMIN) };
+        }
+
+        Bonus[] bonuses = world.getBonuses();
+        tankCount = view.getTankCount();
+        bonusCount = bonuses.length;
+        pointCount = tankCount + bonusCount + CORNER_COUNT + WALL_COUNT;
+
+        if (xs.length < pointCount) {
+            xs = new double[pointCount];
+            ys = new double[pointCount];
+            squaredDistances = new double[pointCount * pointCount];
+        }
+
+        int point = 0;
+        for (int tankIndex = 0; tankIndex < tankCount; ++tankIndex) {
+            Tank tank = view.getTank(tankIndex);
+            xs[point] = tank.getX();
+            ys[point++] = tank.getY();
+        }
+        for (Bonus bonus : bonuses) {
+            xs[point] = bonus.getX();
+            ys[point++] = bonus.getY();
+        }
+        for (Point corner : corners) {
+            xs[point] = corner.x;
+            ys[point++] = corner.y;
+        }
+        for (Point wall : walls) {
+            xs[point] = wall.x;
+            ys[point++] = wall.y;
+        }
+
+        for (int first = 0; first < pointCount; ++first) {
+            squaredDistances[first * pointCount + first] = 0.0D;
+
+            for (int second = first + 1; second < pointCount; ++second) {
+                double dx = xs[second] - xs[first];
+                double dy = ys[second] - ys[first];
+                double squaredDistance = dx * dx + dy * dy;
+                squaredDistances[first * pointCount + second] = squaredDistance;
+                squaredDistances[second * pointCount + first] = squaredDistance;
+            }
+        }
+    }
+
+    public double getSquaredDistance(int firstPoint, int secondPoint) {
+        return squaredDistances[firstPoint * pointCount + secondPoint];
+    }
+
+    /**
+     * @param tankIndex index in the world's tanks
+     */
+    public int getTankPoint(int tankIndex) {
+        return tankIndex;
+    }
+
+    /**
+     * @param bonusIndex index in the world's bonuses
+     */
+    public int getBonusPoint(int bonusIndex) {
+        return tankCount + bonusIndex;
+    }
+
+    /**
+     * @return point of the given corner or wall middle, or -1 if it isn't one of this matrix's landmarks
+     */
+    public int getLandmarkPoint(Point landmark) {
+        int point = tankCount + bonusCount;
+        for (Point corner : corners) {
+            if (corner == landmark) {
+                return point;
+            }
+            ++point;
+        }
+        for (Point wall : walls) {
+            if (wall == landmark) {
+                return point;
+            }
+            ++point;
+        }
+        return -1;
+    }
+
+    /**
+     * @return corners of the map; the array is shared and must not be modified
+     */
+    public Point[] getCorners() {
+        return corners;
+    }
+
+    /**
+     * @return middles of the walls of the map; the array is shared and must not be modified
+     */
+    public Point[] getWalls() {
+        return walls;
+    }
+}
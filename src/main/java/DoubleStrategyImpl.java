@@ -4,8 +4,12 @@ import static java.lang.StrictMath.PI;
 
 public class DoubleStrategyImpl extends BaseStrategyImpl {
 
-    public DoubleStrategyImpl(Tank self, World world, Move move, State state) {
-        super(self, world, move, state);
+    public DoubleStrategyImpl(State state) {
+        super(state);
+    }
+
+    public DoubleStrategyImpl(Tank self, WorldView view, Move move, State state) {
+        super(self, view, move, state);
     }
 
     private boolean shouldLeaveCorner() {
@@ -214,11 +218,11 @@ public class DoubleStrategyImpl extends BaseStrategyImpl {
         List<Tank> enemies = getAliveEnemies();
         List<Tank> openEnemies = selectOpenEnemies(enemies);
         if (openEnemies.isEmpty()) {
-            Tank enemy = Collections.max(enemies, new EnemiesComparator(self));
+            Tank enemy = selectTarget(enemies);
             turnTurretTo(enemy);
             return;
         }
-        Tank enemy = Collections.max(openEnemies, new EnemiesComparator(self));
+        Tank enemy = selectTarget(openEnemies);
         tryShoot(enemy);
     }
 
@@ -226,12 +230,24 @@ public class DoubleStrategyImpl extends BaseStrategyImpl {
         return TankType.MEDIUM;
     }
 
+    /**
+     * Same stages as {@link SingleStrategyImpl#run()}.
+     */
     public void run() {
         // System.out.println("tick: " + world.getTick() +
         // "; teammate index: " + self.getTeammateIndex() +
         // "; state: " + state);
         selectShootMove();
-        selectDriveMove();
+        if (!budget.isExhausted()) {
+            selectDriveMove();
+            return;
+        }
+
+        // no time left to navigate, so at least dodge the shells
+        List<Shell> dangerShells = getDangerShells();
+        if (!dangerShells.isEmpty()) {
+            avoidDanger(dangerShells);
+        }
     }
 
     public State getState() {
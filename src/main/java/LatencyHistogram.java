@@ -0,0 +1,79 @@
+/**
+ * Log-linear histogram of non-negative values in the spirit of HdrHistogram: values below 64 are counted exactly,
+ * larger ones in 32 sub-buckets per power of two, so every reported value is within 1/32 of the recorded one.
+ * Recording doesn't allocate.
+ */
+public final class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int SUB_BUCKET_HALF_COUNT = SUB_BUCKET_COUNT / 2;
+
+    private final long[] counts = new long[getIndex(Long.MAX_VALUE) + 1];
+
+    private long count;
+    private long total;
+    private long max;
+
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+
+        ++counts[getIndex(value)];
+        ++count;
+        total += value;
+
+        if (value > max) {
+            max = value;
+        }
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getMax() {
+        return max;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0.0D : (double) total / count;
+    }
+
+    /**
+     * @return the highest value equivalent to the value at the given percentile, never above the maximum
+     */
+    public long getValueAtPercentile(double percentile) {
+        long rank = Math.max(1L, (long) Math.ceil(percentile / 100.0D * count));
+        long cumulativeCount = 0;
+
+        for (int index = 0; index < counts.length; ++index) {
+            cumulativeCount += counts[index];
+
+            if (cumulativeCount >= rank) {
+                return Math.min(getHighestValue(index), max);
+            }
+        }
+
+        return max;
+    }
+
+    private static int getIndex(long value) {
+        if (value < SUB_BUCKET_COUNT) {
+            return (int) value;
+        }
+
+        int shift = 64 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+        return shift * SUB_BUCKET_HALF_COUNT + (int) (value >>> shift);
+    }
+
+    private static long getHighestValue(int index) {
+        if (index < SUB_BUCKET_COUNT) {
+            return index;
+        }
+
+        int shift = index / SUB_BUCKET_HALF_COUNT - 1;
+        long subBucket = index - shift * SUB_BUCKET_HALF_COUNT;
+        return ((subBucket + 1) << shift) - 1;
+    }
+}
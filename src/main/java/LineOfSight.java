@@ -0,0 +1,86 @@
+import model.Unit;
+
+import java.util.Arrays;
+
+/**
+ * Batch of oriented boxes tested against line segments. Each test is a separating axis test in the box frame
+ * that uses only multiplications, additions and absolute values; the axes of a unit come from its cached
+ * {@link Unit.Geometry}.
+ */
+public final class LineOfSight {
+    private double[] centerXs = new double[16];
+    private double[] centerYs = new double[16];
+    private double[] cosines = new double[16];
+    private double[] sines = new double[16];
+    private double[] halfWidths = new double[16];
+    private double[] halfHeights = new double[16];
+    private int count;
+
+    public void clear() {
+        count = 0;
+    }
+
+    public int getCount() {
+        return count;
+    }
+
+    public void add(Unit unit) {
+        Unit.Geometry geometry = unit.getGeometry();
+        add(
+                unit.getX(), unit.getY(), geometry.getCos(), geometry.getSin(),
+                geometry.getHalfWidth(), geometry.getHalfHeight()
+        );
+    }
+
+    public void add(double centerX, double centerY, double cos, double sin, double halfWidth, double halfHeight) {
+        if (count == centerXs.length) {
+            int capacity = 2 * count;
+            centerXs = Arrays.copyOf(centerXs, capacity);
+            centerYs = Arrays.copyOf(centerYs, capacity);
+            cosines = Arrays.copyOf(cosines, capacity);
+            sines = Arrays.copyOf(sines, capacity);
+            halfWidths = Arrays.copyOf(halfWidths, capacity);
+            halfHeights = Arrays.copyOf(halfHeights, capacity);
+        }
+
+        centerXs[count] = centerX;
+        centerYs[count] = centerY;
+        cosines[count] = cos;
+        sines[count] = sin;
+        halfWidths[count] = halfWidth;
+        halfHeights[count] = halfHeight;
+        ++count;
+    }
+
+    /**
+     * @return whether the segment from (x1, y1) to (x2, y2) crosses or touches any box
+     */
+    public boolean isBlocked(double x1, double y1, double x2, double y2) {
+        double middleX = (x1 + x2) / 2.0D;
+        double middleY = (y1 + y2) / 2.0D;
+        double halfX = (x2 - x1) / 2.0D;
+        double halfY = (y2 - y1) / 2.0D;
+
+        for (int i = 0; i < count; ++i) {
+            double cos = cosines[i];
+            double sin = sines[i];
+            double offsetX = middleX - centerXs[i];
+            double offsetY = middleY - centerYs[i];
+
+            double middleU = offsetX * cos + offsetY * sin;
+            double middleV = offsetY * cos - offsetX * sin;
+            double halfU = halfX * cos + halfY * sin;
+            double halfV = halfY * cos - halfX * sin;
+            double absHalfU = Math.abs(halfU);
+            double absHalfV = Math.abs(halfV);
+
+            if (Math.abs(middleU) <= halfWidths[i] + absHalfU
+                    && Math.abs(middleV) <= halfHeights[i] + absHalfV
+                    && Math.abs(middleU * halfV - middleV * halfU) <= halfWidths[i] * absHalfV + halfHeights[i] * absHalfU) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+}
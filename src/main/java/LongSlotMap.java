@@ -0,0 +1,136 @@
+import java.util.Arrays;
+
+/**
+ * Open-addressing map from {@code long} keys to non-negative {@code int} slots, without boxing. Collisions are
+ * resolved by linear probing and removal shifts the following entries back, so there are no tombstones. The table
+ * doubles when it becomes half full and never shrinks.
+ */
+public final class LongSlotMap {
+    public static final int ABSENT = -1;
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys;
+    private int[] slots;
+    private int mask;
+    private int size;
+
+    public LongSlotMap() {
+        this(MIN_CAPACITY);
+    }
+
+    /**
+     * @param expectedSize number of keys the map holds without growing
+     */
+    public LongSlotMap(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2) {
+            capacity <<= 1;
+        }
+        allocate(capacity);
+    }
+
+    /**
+     * @return slot of the key or {@link #ABSENT}
+     */
+    public int get(long key) {
+        for (int index = indexOf(key); ; index = (index + 1) & mask) {
+            int slot = slots[index];
+            if (slot == ABSENT || keys[index] == key) {
+                return slot;
+            }
+        }
+    }
+
+    /**
+     * @return previous slot of the key or {@link #ABSENT}
+     */
+    public int put(long key, int slot) {
+        if (slot < 0) {
+            throw new IllegalArgumentException("Slot can't be negative: " + slot + '.');
+        }
+
+        for (int index = indexOf(key); ; index = (index + 1) & mask) {
+            int oldSlot = slots[index];
+            if (oldSlot == ABSENT) {
+                keys[index] = key;
+                slots[index] = slot;
+                if (++size * 2 > slots.length) {
+                    resize(slots.length * 2);
+                }
+                return ABSENT;
+            }
+            if (keys[index] == key) {
+                slots[index] = slot;
+                return oldSlot;
+            }
+        }
+    }
+
+    /**
+     * @return removed slot of the key or {@link #ABSENT}
+     */
+    public int remove(long key) {
+        int index = indexOf(key);
+        while (slots[index] != ABSENT && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+
+        int slot = slots[index];
+        if (slot == ABSENT) {
+            return ABSENT;
+        }
+
+        // shift back the entries of the probe run that can't be found once this bucket is empty
+        int hole = index;
+        for (int next = (hole + 1) & mask; slots[next] != ABSENT; next = (next + 1) & mask) {
+            int home = indexOf(keys[next]);
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                keys[hole] = keys[next];
+                slots[hole] = slots[next];
+                hole = next;
+            }
+        }
+        slots[hole] = ABSENT;
+        --size;
+        return slot;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(slots, ABSENT);
+        size = 0;
+    }
+
+    private int indexOf(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ hash >>> 32) & mask;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        slots = new int[capacity];
+        Arrays.fill(slots, ABSENT);
+        mask = capacity - 1;
+    }
+
+    private void resize(int capacity) {
+        long[] oldKeys = keys;
+        int[] oldSlots = slots;
+        allocate(capacity);
+
+        for (int index = 0; index < oldSlots.length; ++index) {
+            if (oldSlots[index] != ABSENT) {
+                int newIndex = indexOf(oldKeys[index]);
+                while (slots[newIndex] != ABSENT) {
+                    newIndex = (newIndex + 1) & mask;
+                }
+                keys[newIndex] = oldKeys[index];
+                slots[newIndex] = oldSlots[index];
+            }
+        }
+    }
+}
@@ -19,28 +19,40 @@ enum State {
     }
 }
 
-public final class MyStrategy implements Strategy {
+public final class MyStrategy implements TeamStrategy {
     private State state;
+    private final TeamContext context = new TeamContext();
+    private final SingleStrategyImpl singleStrategy;
+    private final DoubleStrategyImpl doubleStrategy;
 
     public MyStrategy() {
         state = State.Init;
+        singleStrategy = new SingleStrategyImpl(state);
+        doubleStrategy = new DoubleStrategyImpl(state);
     }
 
     @Override
     public void move(Tank self, World world, Move move) {
-        int teammates = BaseStrategyImpl.getAliveTeammates(self, world);
+        context.update(world);
+        move(self, context, move);
+    }
+
+    @Override
+    public void move(Tank self, TeamContext context, Move move) {
+        WorldView view = context.getView();
+        int teammates = view.getAliveTeammateCount(self);
         if (teammates == 0) {
-            SingleStrategyImpl strategy = new SingleStrategyImpl(self, world, move, state);
-            strategy.run();
-            state = strategy.getState();
+            singleStrategy.rebind(self, view, move, state, context.getBudget());
+            singleStrategy.run();
+            state = singleStrategy.getState();
         } else if (teammates == 1) {
-            DoubleStrategyImpl strategy = new DoubleStrategyImpl(self, world, move, state);
-            strategy.run();
-            state = strategy.getState();
+            doubleStrategy.rebind(self, view, move, state, context.getBudget());
+            doubleStrategy.run();
+            state = doubleStrategy.getState();
         } else {
-            DoubleStrategyImpl strategy = new DoubleStrategyImpl(self, world, move, state);
-            strategy.run();
-            state = strategy.getState();
+            doubleStrategy.rebind(self, view, move, state, context.getBudget());
+            doubleStrategy.run();
+            state = doubleStrategy.getState();
         }
     }
 
@@ -1,44 +1,116 @@
 import model.*;
 
 import java.io.*;
+import java.net.InetSocketAddress;
 import java.net.Socket;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.util.Arrays;
 
 public final class RemoteProcessClient implements Closeable {
     private static final int BUFFER_SIZE_BYTES = 1 << 20;
     private static final ByteOrder PROTOCOL_BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+    private static final Charset PROTOCOL_CHARSET = Charset.forName("UTF-8");
     private static final int INTEGER_SIZE_BYTES = Integer.SIZE / Byte.SIZE;
     private static final int LONG_SIZE_BYTES = Long.SIZE / Byte.SIZE;
+    private static final int MOVE_SIZE_BYTES = 1 + 3 * LONG_SIZE_BYTES + 1;
+    private static final int INITIAL_PLAYER_NAME_CACHE_SIZE = 16;
+
+    private static final MessageType[] MESSAGE_TYPES = MessageType.values();
+    private static final TankType[] TANK_TYPES = TankType.values();
+    private static final ShellType[] SHELL_TYPES = ShellType.values();
+    private static final BonusType[] BONUS_TYPES = BonusType.values();
 
     private final Socket socket;
+    private final SocketChannel channel;
     private final InputStream inputStream;
     private final OutputStream outputStream;
-    private final ByteArrayOutputStream outputStreamBuffer;
+    private final ByteBuffer messageTypeBuffer;
+    private final ByteBuffer[] outputBuffers;
+
+    private ByteBuffer inputBuffer;
+    private ByteBuffer outputBuffer;
+
+    private byte[][] playerNameBytes = new byte[INITIAL_PLAYER_NAME_CACHE_SIZE][];
+    private String[] playerNames = new String[INITIAL_PLAYER_NAME_CACHE_SIZE];
+    private int playerNameCount;
+
+    private ModelFactory contextModel = new ModelFactory();
+    private ModelFactory worldModel = contextModel;
+
+    private TickRecorder tickRecorder;
+    private int recordedPosition = -1;
 
     public RemoteProcessClient(String host, int port) throws IOException {
-        socket = new Socket(host, port);
+        this(host, port, false);
+    }
+
+    public RemoteProcessClient(String host, int port, boolean useChannel) throws IOException {
+        if (useChannel) {
+            channel = SocketChannel.open(new InetSocketAddress(host, port));
+            socket = channel.socket();
+            inputStream = null;
+            outputStream = null;
+        } else {
+            channel = null;
+            socket = new Socket(host, port);
+            inputStream = socket.getInputStream();
+            outputStream = socket.getOutputStream();
+        }
+
         socket.setSendBufferSize(BUFFER_SIZE_BYTES);
         socket.setReceiveBufferSize(BUFFER_SIZE_BYTES);
 
-        inputStream = socket.getInputStream();
-        outputStream = socket.getOutputStream();
-        outputStreamBuffer = new ByteArrayOutputStream(BUFFER_SIZE_BYTES);
+        inputBuffer = allocateBuffer(BUFFER_SIZE_BYTES);
+        inputBuffer.flip();
+
+        outputBuffer = allocateBuffer(BUFFER_SIZE_BYTES);
+        messageTypeBuffer = allocateBuffer(1);
+        outputBuffers = new ByteBuffer[]{messageTypeBuffer, outputBuffer};
+    }
+
+    /**
+     * Reads messages from the given bytes instead of a socket and discards everything written.
+     */
+    public RemoteProcessClient(ByteBuffer input) {
+        channel = null;
+        socket = null;
+        inputStream = null;
+        outputStream = null;
+
+        inputBuffer = input.order(PROTOCOL_BYTE_ORDER);
+
+        outputBuffer = allocateBuffer(BUFFER_SIZE_BYTES);
+        messageTypeBuffer = allocateBuffer(1);
+        outputBuffers = new ByteBuffer[]{messageTypeBuffer, outputBuffer};
+    }
+
+    /**
+     * Replaces the remaining input of a client created with {@link #RemoteProcessClient(ByteBuffer)}.
+     */
+    public void setInput(ByteBuffer input) {
+        if (socket != null) {
+            throw new IllegalStateException("Can't replace input of a connected client.");
+        }
+
+        inputBuffer = input.order(PROTOCOL_BYTE_ORDER);
     }
 
     public void writeToken(String token) throws IOException {
-        writeEnum(MessageType.AUTHENTICATION_TOKEN);
+        writeMessageType(MessageType.AUTHENTICATION_TOKEN);
         writeString(token);
         flush();
     }
 
     public int readTeamSize() throws IOException {
-        ensureMessageType(readEnum(MessageType.class), MessageType.TEAM_SIZE);
+        ensureMessageType(readEnum(MESSAGE_TYPES), MessageType.TEAM_SIZE);
         return readInt();
     }
 
     public void writeSelectedTanks(TankType[] tankTypes) throws IOException {
-        writeEnum(MessageType.TANK_TYPES);
+        writeMessageType(MessageType.TANK_TYPES);
 
         if (tankTypes == null) {
             writeInt(-1);
@@ -55,46 +127,104 @@ public final class RemoteProcessClient implements Closeable {
     }
 
     public PlayerContext readPlayerContext() throws IOException {
-        MessageType messageType = readEnum(MessageType.class);
+        if (tickRecorder != null) {
+            tickRecorder.discardPlayerContext();
+            recordedPosition = inputBuffer.position();
+        }
+
+        MessageType messageType = readEnum(MESSAGE_TYPES);
         if (messageType == MessageType.GAME_OVER) {
+            recordedPosition = -1;
             return null;
         }
 
         ensureMessageType(messageType, MessageType.PLAYER_CONTEXT);
-        return readBoolean() ? new PlayerContext(readTanks(), readWorld()) : null;
+        PlayerContext playerContext = readBoolean()
+                ? contextModel.newPlayerContext(readTanks(contextModel), readWorld())
+                : null;
+
+        if (recordedPosition != -1) {
+            tickRecorder.appendPlayerContext(inputBuffer, recordedPosition, inputBuffer.position());
+            recordedPosition = -1;
+        }
+
+        return playerContext;
+    }
+
+    /**
+     * Blocks until the first byte of the next message has been received.
+     */
+    public void awaitMessage() throws IOException {
+        ensureInput(1);
+    }
+
+    /**
+     * Records every PLAYER_CONTEXT message received and the MOVES message sent in reply. The recorder is
+     * closed together with this client.
+     */
+    public void setTickRecorder(TickRecorder tickRecorder) {
+        this.tickRecorder = tickRecorder;
+    }
+
+    /**
+     * In recycling mode every readPlayerContext() call overwrites the objects returned by the previous one.
+     */
+    public void setRecycleModel(boolean recycleModel) {
+        if (recycleModel) {
+            contextModel = new ModelPool();
+            worldModel = new ModelPool();
+        } else {
+            contextModel = new ModelFactory();
+            worldModel = contextModel;
+        }
     }
 
     public void writeMoves(Move[] moves) throws IOException {
-        writeEnum(MessageType.MOVES);
+        writeMessageType(MessageType.MOVES);
 
         if (moves == null) {
             writeInt(-1);
         } else {
             int moveCount = moves.length;
-            writeInt(moveCount);
+            ensureOutput(INTEGER_SIZE_BYTES + moveCount * MOVE_SIZE_BYTES);
+            outputBuffer.putInt(moveCount);
 
             for (int moveIndex = 0; moveIndex < moveCount; ++moveIndex) {
                 Move move = moves[moveIndex];
 
                 if (move == null) {
-                    writeBoolean(false);
+                    outputBuffer.put((byte) 0);
                 } else {
-                    writeBoolean(true);
+                    outputBuffer.put((byte) 1);
+
+                    outputBuffer.putLong(Double.doubleToLongBits(move.getLeftTrackPower()));
+                    outputBuffer.putLong(Double.doubleToLongBits(move.getRightTrackPower()));
+                    outputBuffer.putLong(Double.doubleToLongBits(move.getTurretTurn()));
 
-                    writeDouble(move.getLeftTrackPower());
-                    writeDouble(move.getRightTrackPower());
-                    writeDouble(move.getTurretTurn());
-                    writeEnum(move.getFireType());
+                    FireType fireType = move.getFireType();
+                    outputBuffer.put((byte) (fireType == null ? -1 : fireType.ordinal()));
                 }
             }
         }
 
+        if (tickRecorder != null) {
+            tickRecorder.recordMoves(messageTypeBuffer, outputBuffer);
+        }
+
         flush();
     }
 
     @Override
     public void close() throws IOException {
-        socket.close();
+        try {
+            if (tickRecorder != null) {
+                tickRecorder.close();
+            }
+        } finally {
+            if (socket != null) {
+                socket.close();
+            }
+        }
     }
 
     private World readWorld() throws IOException {
@@ -102,9 +232,9 @@ public final class RemoteProcessClient implements Closeable {
             return null;
         }
 
-        return new World(
+        return worldModel.newWorld(
                 readInt(), readDouble(), readDouble(),
-                readPlayers(), readObstacles(), readTanks(), readShells(), readBonuses()
+                readPlayers(), readObstacles(), readTanks(worldModel), readShells(), readBonuses()
         );
     }
 
@@ -114,12 +244,12 @@ public final class RemoteProcessClient implements Closeable {
             return null;
         }
 
-        Player[] players = new Player[playerCount];
+        Player[] players = worldModel.newPlayers(playerCount);
 
         for (int playerIndex = 0; playerIndex < playerCount; ++playerIndex) {
-            if (readBoolean()) {
-                players[playerIndex] = new Player(readString(), readInt(), readBoolean());
-            }
+            players[playerIndex] = readBoolean()
+                    ? worldModel.newPlayer(playerIndex, readPlayerName(), readInt(), readBoolean())
+                    : null;
         }
 
         return players;
@@ -131,36 +261,32 @@ public final class RemoteProcessClient implements Closeable {
             return null;
         }
 
-        Obstacle[] obstacles = new Obstacle[obstacleCount];
+        Obstacle[] obstacles = worldModel.newObstacles(obstacleCount);
 
         for (int obstacleIndex = 0; obstacleIndex < obstacleCount; ++obstacleIndex) {
-            if (readBoolean()) {
-                obstacles[obstacleIndex] = new Obstacle(
-                        readLong(), readDouble(), readDouble(), readDouble(), readDouble()
-                );
-            }
+            obstacles[obstacleIndex] = readBoolean() ? worldModel.newObstacle(
+                    obstacleIndex, readLong(), readDouble(), readDouble(), readDouble(), readDouble()
+            ) : null;
         }
 
         return obstacles;
     }
 
-    private Tank[] readTanks() throws IOException {
+    private Tank[] readTanks(ModelFactory model) throws IOException {
         int tankCount = readInt();
         if (tankCount < 0) {
             return null;
         }
 
-        Tank[] tanks = new Tank[tankCount];
+        Tank[] tanks = model.newTanks(tankCount);
 
         for (int tankIndex = 0; tankIndex < tankCount; ++tankIndex) {
-            if (readBoolean()) {
-                tanks[tankIndex] = new Tank(
-                        readLong(), readString(), readInt(), readDouble(), readDouble(),
-                        readDouble(), readDouble(), readDouble(), readDouble(), readDouble(),
-                        readInt(), readInt(), readInt(), readInt(), readInt(),
-                        readBoolean(), readEnum(TankType.class)
-                );
-            }
+            tanks[tankIndex] = readBoolean() ? model.newTank(
+                    tankIndex, readLong(), readPlayerName(), readInt(), readDouble(), readDouble(),
+                    readDouble(), readDouble(), readDouble(), readDouble(), readDouble(),
+                    readInt(), readInt(), readInt(), readInt(), readInt(),
+                    readBoolean(), readEnum(TANK_TYPES)
+            ) : null;
         }
 
         return tanks;
@@ -172,15 +298,13 @@ public final class RemoteProcessClient implements Closeable {
             return null;
         }
 
-        Shell[] shells = new Shell[shellCount];
+        Shell[] shells = worldModel.newShells(shellCount);
 
         for (int shellIndex = 0; shellIndex < shellCount; ++shellIndex) {
-            if (readBoolean()) {
-                shells[shellIndex] = new Shell(
-                        readLong(), readString(), readDouble(), readDouble(), readDouble(), readDouble(),
-                        readDouble(), readDouble(), readDouble(), readDouble(), readEnum(ShellType.class)
-                );
-            }
+            shells[shellIndex] = readBoolean() ? worldModel.newShell(
+                    shellIndex, readLong(), readPlayerName(), readDouble(), readDouble(), readDouble(), readDouble(),
+                    readDouble(), readDouble(), readDouble(), readDouble(), readEnum(SHELL_TYPES)
+            ) : null;
         }
 
         return shells;
@@ -192,14 +316,13 @@ public final class RemoteProcessClient implements Closeable {
             return null;
         }
 
-        Bonus[] bonuses = new Bonus[bonusCount];
+        Bonus[] bonuses = worldModel.newBonuses(bonusCount);
 
         for (int bonusIndex = 0; bonusIndex < bonusCount; ++bonusIndex) {
-            if (readBoolean()) {
-                bonuses[bonusIndex] = new Bonus(
-                        readLong(), readDouble(), readDouble(), readDouble(), readDouble(), readEnum(BonusType.class)
-                );
-            }
+            bonuses[bonusIndex] = readBoolean() ? worldModel.newBonus(
+                    bonusIndex, readLong(), readDouble(), readDouble(), readDouble(), readDouble(),
+                    readEnum(BONUS_TYPES)
+            ) : null;
         }
 
         return bonuses;
@@ -213,37 +336,82 @@ public final class RemoteProcessClient implements Closeable {
         }
     }
 
-    private <E extends Enum> E readEnum(Class<E> enumClass) throws IOException {
-        byte ordinal = readBytes(1)[0];
+    private <E extends Enum> E readEnum(E[] values) throws IOException {
+        ensureInput(1);
+        byte ordinal = inputBuffer.get();
 
-        E[] values = enumClass.getEnumConstants();
-        int valueCount = values.length;
+        if (ordinal == -1) {
+            return null;
+        }
 
-        for (int valueIndex = 0; valueIndex < valueCount; ++valueIndex) {
-            E value = values[valueIndex];
-            if (value.ordinal() == ordinal) {
-                return value;
-            }
+        if (ordinal < 0 || ordinal >= values.length) {
+            throw new IllegalArgumentException(String.format(
+                    "Received unknown %s [ordinal=%d].", values[0].getDeclaringClass().getSimpleName(), ordinal
+            ));
         }
 
-        return null;
+        return values[ordinal];
     }
 
     private <E extends Enum> void writeEnum(E value) throws IOException {
-        writeBytes(new byte[]{(byte) (value == null ? -1 : value.ordinal())});
+        ensureOutput(1);
+        outputBuffer.put((byte) (value == null ? -1 : value.ordinal()));
+    }
+
+    private void writeMessageType(MessageType messageType) throws IOException {
+        if (channel == null) {
+            writeEnum(messageType);
+        } else {
+            messageTypeBuffer.put((byte) messageType.ordinal());
+        }
     }
 
-    private String readString() throws IOException {
+    /**
+     * Player names do not change during a game, so every name is decoded once and then returned as the same
+     * String instance. Names of tanks, shells and players can therefore be compared by identity. The cache never
+     * evicts; it grows to the number of distinct names, which is the number of players of the game.
+     */
+    private String readPlayerName() throws IOException {
         int length = readInt();
         if (length == -1) {
             return null;
         }
 
-        try {
-            return new String(readBytes(length), "UTF-8");
-        } catch (UnsupportedEncodingException e) {
-            throw new IllegalArgumentException("UTF-8 is unsupported.", e);
+        ensureInput(length);
+        int position = inputBuffer.position();
+
+        for (int nameIndex = 0; nameIndex < playerNameCount; ++nameIndex) {
+            if (isInputEqual(position, length, playerNameBytes[nameIndex])) {
+                inputBuffer.position(position + length);
+                return playerNames[nameIndex];
+            }
+        }
+
+        byte[] bytes = new byte[length];
+        inputBuffer.get(bytes);
+        String name = new String(bytes, PROTOCOL_CHARSET);
+
+        if (playerNameCount == playerNames.length) {
+            playerNameBytes = Arrays.copyOf(playerNameBytes, 2 * playerNameCount);
+            playerNames = Arrays.copyOf(playerNames, 2 * playerNameCount);
+        }
+        playerNameBytes[playerNameCount] = bytes;
+        playerNames[playerNameCount++] = name;
+        return name;
+    }
+
+    private boolean isInputEqual(int position, int length, byte[] bytes) {
+        if (bytes.length != length) {
+            return false;
         }
+
+        for (int byteIndex = 0; byteIndex < length; ++byteIndex) {
+            if (inputBuffer.get(position + byteIndex) != bytes[byteIndex]) {
+                return false;
+            }
+        }
+
+        return true;
     }
 
     private void writeString(String value) throws IOException {
@@ -264,61 +432,125 @@ public final class RemoteProcessClient implements Closeable {
     }
 
     private boolean readBoolean() throws IOException {
-        return readBytes(1)[0] == 1;
-    }
-
-    private void writeBoolean(boolean value) throws IOException {
-        writeBytes(new byte[]{(byte) (value ? 1 : 0)});
+        ensureInput(1);
+        return inputBuffer.get() == 1;
     }
 
     private int readInt() throws IOException {
-        return ByteBuffer.wrap(readBytes(INTEGER_SIZE_BYTES)).order(PROTOCOL_BYTE_ORDER).getInt();
+        ensureInput(INTEGER_SIZE_BYTES);
+        return inputBuffer.getInt();
     }
 
     private void writeInt(int value) throws IOException {
-        writeBytes(ByteBuffer.allocate(INTEGER_SIZE_BYTES).order(PROTOCOL_BYTE_ORDER).putInt(value).array());
+        ensureOutput(INTEGER_SIZE_BYTES);
+        outputBuffer.putInt(value);
     }
 
     private long readLong() throws IOException {
-        return ByteBuffer.wrap(readBytes(LONG_SIZE_BYTES)).order(PROTOCOL_BYTE_ORDER).getLong();
-    }
-
-    private void writeLong(long value) throws IOException {
-        writeBytes(ByteBuffer.allocate(LONG_SIZE_BYTES).order(PROTOCOL_BYTE_ORDER).putLong(value).array());
+        ensureInput(LONG_SIZE_BYTES);
+        return inputBuffer.getLong();
     }
 
     private double readDouble() throws IOException {
         return Double.longBitsToDouble(readLong());
     }
 
-    private void writeDouble(double value) throws IOException {
-        writeLong(Double.doubleToLongBits(value));
-    }
+    private void ensureInput(int byteCount) throws IOException {
+        if (inputBuffer.remaining() >= byteCount) {
+            return;
+        }
 
-    private byte[] readBytes(int byteCount) throws IOException {
-        byte[] bytes = new byte[byteCount];
-        int offset = 0;
-        int readByteCount;
+        if (socket == null) {
+            throw new IOException(String.format("Can't read %d bytes from input buffer.", byteCount));
+        }
 
-        while (offset < byteCount && (readByteCount = inputStream.read(bytes, offset, byteCount - offset)) != -1) {
-            offset += readByteCount;
+        if (recordedPosition != -1) {
+            tickRecorder.appendPlayerContext(inputBuffer, recordedPosition, inputBuffer.position());
+            recordedPosition = 0;
         }
 
-        if (offset != byteCount) {
-            throw new IOException(String.format("Can't read %d bytes from input stream.", byteCount));
+        if (byteCount > inputBuffer.capacity()) {
+            ByteBuffer buffer = allocateBuffer(byteCount);
+            buffer.put(inputBuffer);
+            buffer.flip();
+            inputBuffer = buffer;
         }
 
-        return bytes;
+        inputBuffer.compact();
+
+        try {
+            while (inputBuffer.position() < byteCount) {
+                int readByteCount;
+
+                if (channel == null) {
+                    readByteCount = inputStream.read(
+                            inputBuffer.array(), inputBuffer.arrayOffset() + inputBuffer.position(),
+                            inputBuffer.remaining()
+                    );
+
+                    if (readByteCount > 0) {
+                        inputBuffer.position(inputBuffer.position() + readByteCount);
+                    }
+                } else {
+                    readByteCount = channel.read(inputBuffer);
+                }
+
+                if (readByteCount == -1) {
+                    break;
+                }
+            }
+        } finally {
+            inputBuffer.flip();
+        }
+
+        if (inputBuffer.remaining() < byteCount) {
+            throw new IOException(String.format("Can't read %d bytes from input stream.", byteCount));
+        }
     }
 
     private void writeBytes(byte[] bytes) throws IOException {
-        outputStreamBuffer.write(bytes);
+        ensureOutput(bytes.length);
+        outputBuffer.put(bytes);
+    }
+
+    private void ensureOutput(int byteCount) {
+        if (outputBuffer.remaining() >= byteCount) {
+            return;
+        }
+
+        ByteBuffer buffer = allocateBuffer(Math.max(2 * outputBuffer.capacity(), outputBuffer.position() + byteCount));
+        outputBuffer.flip();
+        buffer.put(outputBuffer);
+        outputBuffer = buffer;
+        outputBuffers[1] = buffer;
     }
 
     private void flush() throws IOException {
-        outputStream.write(outputStreamBuffer.toByteArray());
-        outputStreamBuffer.reset();
-        outputStream.flush();
+        outputBuffer.flip();
+        messageTypeBuffer.flip();
+
+        try {
+            if (socket == null) {
+                return;
+            }
+
+            if (channel == null) {
+                outputStream.write(outputBuffer.array(), outputBuffer.arrayOffset(), outputBuffer.limit());
+                outputStream.flush();
+            } else {
+                while (messageTypeBuffer.hasRemaining() || outputBuffer.hasRemaining()) {
+                    channel.write(outputBuffers);
+                }
+            }
+        } finally {
+            outputBuffer.clear();
+            messageTypeBuffer.clear();
+        }
+    }
+
+    private ByteBuffer allocateBuffer(int capacity) {
+        ByteBuffer buffer = channel == null ? ByteBuffer.allocate(capacity) : ByteBuffer.allocateDirect(capacity);
+        return buffer.order(PROTOCOL_BYTE_ORDER);
     }
 
     private enum MessageType {
@@ -1,15 +1,30 @@
+import model.FastMath;
 import model.Move;
 import model.PlayerContext;
 import model.Tank;
 import model.TankType;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 public final class Runner {
+    private static final String USE_CHANNEL_PROPERTY = "codetanks.channel";
+    static final String RECYCLE_MODEL_PROPERTY = "codetanks.recycleModel";
+    static final String FAST_MATH_PROPERTY = "codetanks.fastMath";
+    static final String PARALLEL_PROPERTY = "codetanks.parallel";
+    static final String TICK_BUDGET_PROPERTY = "codetanks.tickBudget";
+    static final String RECORD_PROPERTY = "codetanks.record";
+    private static final String LATENCY_PROPERTY = "codetanks.latency";
+
     private final RemoteProcessClient remoteProcessClient;
     private final String token;
+    private final TickLatencies tickLatencies;
+
+    private int tickCount;
 
     public static void main(String[] args) throws IOException {
+        FastMath.setEnabled(Boolean.getBoolean(FAST_MATH_PROPERTY));
+
         if (args.length == 3) {
             new Runner(args).run();
         } else {
@@ -18,8 +33,34 @@ public final class Runner {
     }
 
     private Runner(String[] args) throws IOException {
-        remoteProcessClient = new RemoteProcessClient(args[0], Integer.parseInt(args[1]));
-        token = args[2];
+        this(args[0], Integer.parseInt(args[1]), args[2], System.getProperty(RECORD_PROPERTY));
+    }
+
+    /**
+     * Connects a session that plays one game. Everything but the record path comes from the system properties,
+     * except the process-wide {@link FastMath} mode, which the caller sets before starting any session.
+     *
+     * @param recordPath file to record the game to or {@code null}
+     */
+    Runner(String host, int port, String token, String recordPath) throws IOException {
+        remoteProcessClient = new RemoteProcessClient(host, port, Boolean.getBoolean(USE_CHANNEL_PROPERTY));
+        boolean connected = false;
+
+        try {
+            remoteProcessClient.setRecycleModel(Boolean.getBoolean(RECYCLE_MODEL_PROPERTY));
+
+            if (recordPath != null) {
+                remoteProcessClient.setTickRecorder(new TickRecorder(recordPath));
+            }
+            connected = true;
+        } finally {
+            // run() closes the client; until then a failed session must not leak its socket
+            if (!connected) {
+                remoteProcessClient.close();
+            }
+        }
+        this.token = token;
+        tickLatencies = new TickLatencies(Boolean.getBoolean(LATENCY_PROPERTY));
     }
 
     public void run() throws IOException {
@@ -38,26 +79,61 @@ public final class Runner {
 
             remoteProcessClient.writeSelectedTanks(tankTypes);
 
-            PlayerContext playerContext;
+            StrategyExecutor strategyExecutor = new StrategyExecutor(
+                    strategies, Boolean.getBoolean(PARALLEL_PROPERTY), getTickBudgetNanos()
+            );
 
-            while ((playerContext = remoteProcessClient.readPlayerContext()) != null) {
-                Tank[] playerTanks = playerContext.getTanks();
-                if (playerTanks.length != teamSize) {
-                    break;
-                }
+            Move[] moves = new Move[teamSize];
 
-                Move[] moves = new Move[teamSize];
+            try {
+                PlayerContext playerContext;
+                tickLatencies.start();
 
-                for (int strategyIndex = 0; strategyIndex < teamSize; ++strategyIndex) {
-                    Move move = new Move();
-                    moves[strategyIndex] = move;
-                    strategies[strategyIndex].move(playerTanks[strategyIndex], playerContext.getWorld(), move);
-                }
+                while ((playerContext = readPlayerContext()) != null) {
+                    tickLatencies.mark(TickLatencies.Phase.READ);
+
+                    Tank[] playerTanks = playerContext.getTanks();
+                    if (playerTanks.length != teamSize) {
+                        break;
+                    }
 
-                remoteProcessClient.writeMoves(moves);
+                    strategyExecutor.move(playerTanks, playerContext.getWorld(), moves);
+                    tickLatencies.mark(TickLatencies.Phase.MOVE);
+
+                    remoteProcessClient.writeMoves(moves);
+                    tickLatencies.mark(TickLatencies.Phase.WRITE);
+                    ++tickCount;
+                }
+            } finally {
+                strategyExecutor.close();
             }
+
+            tickLatencies.print(System.err);
         } finally {
             remoteProcessClient.close();
         }
     }
+
+    /**
+     * @return number of ticks answered so far
+     */
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * @return budget of a tick from {@link #TICK_BUDGET_PROPERTY} in microseconds, 0 if unset
+     */
+    static long getTickBudgetNanos() {
+        return TimeUnit.MICROSECONDS.toNanos(Long.getLong(TICK_BUDGET_PROPERTY, 0L));
+    }
+
+    private PlayerContext readPlayerContext() throws IOException {
+        if (tickLatencies.isEnabled()) {
+            remoteProcessClient.awaitMessage();
+            tickLatencies.mark(TickLatencies.Phase.WAIT);
+        }
+
+        return remoteProcessClient.readPlayerContext();
+    }
 }
@@ -3,8 +3,12 @@ import model.*;
 
 public class SingleStrategyImpl extends BaseStrategyImpl {
 
-    public SingleStrategyImpl(Tank self, World world, Move move, State state) {
-        super(self, world, move, state);
+    public SingleStrategyImpl(State state) {
+        super(state);
+    }
+
+    public SingleStrategyImpl(Tank self, WorldView view, Move move, State state) {
+        super(self, view, move, state);
     }
 
     private boolean shouldLeaveCorner() {
@@ -156,11 +160,11 @@ public class SingleStrategyImpl extends BaseStrategyImpl {
         List<Tank> enemies = getAliveEnemies();
         List<Tank> openEnemies = selectOpenEnemies(enemies);
         if (openEnemies.isEmpty()) {
-            Tank enemy = Collections.max(enemies, new EnemiesComparator(self));
+            Tank enemy = selectTarget(enemies);
             turnTurretTo(enemy);
             return;
         }
-        Tank enemy = Collections.max(openEnemies, new EnemiesComparator(self));
+        Tank enemy = selectTarget(openEnemies);
         tryShoot(enemy);
     }
 
@@ -168,9 +172,23 @@ public class SingleStrategyImpl extends BaseStrategyImpl {
         return TankType.MEDIUM;
     }
 
+    /**
+     * Shoots and then drives. A tick that doesn't run out of budget gets exactly the moves of an unlimited one. If
+     * the budget runs out before navigation, the tank only dodges the shells that threaten it; shooting itself
+     * stops checking enemies once the budget is gone.
+     */
     public void run() {
         selectShootMove();
-        selectDriveMove();
+        if (!budget.isExhausted()) {
+            selectDriveMove();
+            return;
+        }
+
+        // no time left to navigate, so at least dodge the shells
+        List<Shell> dangerShells = getDangerShells();
+        if (!dangerShells.isEmpty()) {
+            avoidDanger(dangerShells);
+        }
     }
 
     public State getState() {
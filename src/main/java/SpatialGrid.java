@@ -0,0 +1,299 @@
+import model.Obstacle;
+import model.Tank;
+import model.Unit;
+import model.World;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Uniform grid over the units that can block a shot: obstacles, which are indexed once per game, and dead tanks,
+ * bonuses and the alive team, which are indexed every tick. A unit is registered in every cell touched by the
+ * bounding box of its circumscribed circle, so a ray that crosses the unit crosses one of its cells.
+ */
+public final class SpatialGrid {
+    private static final double CELL_SIZE = 64.0D;
+    private static final double MARGIN = 1.0D;
+
+    private final Layer staticLayer = new Layer();
+    private final Layer dynamicLayer = new Layer();
+
+    private long[] obstacleIds = new long[0];
+    private double[] obstacleBounds = new double[0];
+    private int columnCount;
+    private int rowCount;
+
+    /**
+     * Indexes the units of the view's tick. Obstacles are indexed again only if their ids or bounds differ from
+     * the last tick.
+     */
+    public void update(WorldView view) {
+        World world = view.getWorld();
+        int columns = Math.max(1, (int) Math.ceil(world.getWidth() / CELL_SIZE));
+        int rows = Math.max(1, (int) Math.ceil(world.getHeight() / CELL_SIZE));
+        Obstacle[] obstacles = world.getObstacles();
+
+        if (columns != columnCount || rows != rowCount || !hasObstacles(obstacles)) {
+            columnCount = columns;
+            rowCount = rows;
+
+            staticLayer.clear();
+            obstacleIds = new long[obstacles.length];
+            obstacleBounds = new double[4 * obstacles.length];
+
+            for (int obstacleIndex = 0; obstacleIndex < obstacles.length; ++obstacleIndex) {
+                Obstacle obstacle = obstacles[obstacleIndex];
+                staticLayer.add(obstacle);
+
+                if (obstacle == null) {
+                    obstacleIds[obstacleIndex] = -1L;
+                } else {
+                    obstacleIds[obstacleIndex] = obstacle.getId();
+                    obstacleBounds[4 * obstacleIndex] = obstacle.getX();
+                    obstacleBounds[4 * obstacleIndex + 1] = obstacle.getY();
+                    obstacleBounds[4 * obstacleIndex + 2] = obstacle.getWidth();
+                    obstacleBounds[4 * obstacleIndex + 3] = obstacle.getHeight();
+                }
+            }
+
+            staticLayer.index(columnCount, rowCount);
+        }
+
+        dynamicLayer.clear();
+        dynamicLayer.addAll(view.getDeadTanks());
+        dynamicLayer.addAll(world.getBonuses());
+        dynamicLayer.addAll(view.getAliveTeam());
+        dynamicLayer.index(columnCount, rowCount);
+    }
+
+    /**
+     * Collects every unit registered in the cells crossed by the segment of the given length from (x, y) towards
+     * (targetX, targetY). Each unit is collected once.
+     */
+    public void traceRay(double x, double y, double targetX, double targetY, double length, Query query) {
+        query.begin(staticLayer.unitCount, dynamicLayer.unitCount);
+
+        double dx = targetX - x;
+        double dy = targetY - y;
+        double norm = Math.hypot(dx, dy);
+        if (norm > 0.0D) {
+            dx /= norm;
+            dy /= norm;
+        }
+
+        int column = getCell(x, columnCount);
+        int row = getCell(y, rowCount);
+        int stepColumn = dx > 0.0D ? 1 : -1;
+        int stepRow = dy > 0.0D ? 1 : -1;
+
+        double nextColumnT = dx == 0.0D
+                ? Double.POSITIVE_INFINITY : ((column + (dx > 0.0D ? 1 : 0)) * CELL_SIZE - x) / dx;
+        double nextRowT = dy == 0.0D
+                ? Double.POSITIVE_INFINITY : ((row + (dy > 0.0D ? 1 : 0)) * CELL_SIZE - y) / dy;
+        double columnDeltaT = dx == 0.0D ? Double.POSITIVE_INFINITY : CELL_SIZE / Math.abs(dx);
+        double rowDeltaT = dy == 0.0D ? Double.POSITIVE_INFINITY : CELL_SIZE / Math.abs(dy);
+
+        while (true) {
+            int cell = row * columnCount + column;
+            staticLayer.collect(cell, query.staticMarks, query);
+            dynamicLayer.collect(cell, query.dynamicMarks, query);
+
+            if (nextColumnT < nextRowT) {
+                if (nextColumnT > length) {
+                    break;
+                }
+                column += stepColumn;
+                nextColumnT += columnDeltaT;
+            } else {
+                if (nextRowT > length) {
+                    break;
+                }
+                row += stepRow;
+                nextRowT += rowDeltaT;
+            }
+
+            if (column < 0 || column >= columnCount || row < 0 || row >= rowCount) {
+                break;
+            }
+        }
+    }
+
+    /**
+     * @return the largest circumscribed radius of an indexed unit
+     */
+    public double getMaxRadius() {
+        return Math.max(staticLayer.maxRadius, dynamicLayer.maxRadius);
+    }
+
+    private boolean hasObstacles(Obstacle[] obstacles) {
+        if (obstacles.length != obstacleIds.length) {
+            return false;
+        }
+
+        for (int obstacleIndex = 0; obstacleIndex < obstacles.length; ++obstacleIndex) {
+            Obstacle obstacle = obstacles[obstacleIndex];
+
+            if (obstacle == null) {
+                if (obstacleIds[obstacleIndex] != -1L) {
+                    return false;
+                }
+            } else if (obstacle.getId() != obstacleIds[obstacleIndex]
+                    || obstacle.getX() != obstacleBounds[4 * obstacleIndex]
+                    || obstacle.getY() != obstacleBounds[4 * obstacleIndex + 1]
+                    || obstacle.getWidth() != obstacleBounds[4 * obstacleIndex + 2]
+                    || obstacle.getHeight() != obstacleBounds[4 * obstacleIndex + 3]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int getCell(double coordinate, int cellCount) {
+        return Math.max(0, Math.min(cellCount - 1, (int) Math.floor(coordinate / CELL_SIZE)));
+    }
+
+    /**
+     * Units of a layer with their cells stored as ranges of a single entry array.
+     */
+    private static final class Layer {
+        private Unit[] units = new Unit[16];
+        private int unitCount;
+        private double maxRadius;
+
+        private int[] cellStarts = new int[1];
+        private int[] entries = new int[16];
+
+        void clear() {
+            Arrays.fill(units, 0, unitCount, null);
+            unitCount = 0;
+            maxRadius = 0.0D;
+        }
+
+        void add(Unit unit) {
+            if (unit == null) {
+                return;
+            }
+
+            if (unitCount == units.length) {
+                units = Arrays.copyOf(units, 2 * unitCount);
+            }
+            units[unitCount++] = unit;
+        }
+
+        void addAll(Unit[] units) {
+            for (Unit unit : units) {
+                add(unit);
+            }
+        }
+
+        void addAll(List<? extends Unit> units) {
+            for (int unitIndex = 0, count = units.size(); unitIndex < count; ++unitIndex) {
+                add(units.get(unitIndex));
+            }
+        }
+
+        void index(int columnCount, int rowCount) {
+            int cellCount = columnCount * rowCount;
+            if (cellStarts.length < cellCount + 1) {
+                cellStarts = new int[cellCount + 1];
+            } else {
+                Arrays.fill(cellStarts, 0, cellCount + 1, 0);
+            }
+
+            for (int unitIndex = 0; unitIndex < unitCount; ++unitIndex) {
+                Unit unit = units[unitIndex];
+                double radius = Math.hypot(unit.getWidth(), unit.getHeight()) / 2.0D + MARGIN;
+                maxRadius = Math.max(maxRadius, radius);
+
+                int minColumn = getCell(unit.getX() - radius, columnCount);
+                int maxColumn = getCell(unit.getX() + radius, columnCount);
+                int minRow = getCell(unit.getY() - radius, rowCount);
+                int maxRow = getCell(unit.getY() + radius, rowCount);
+
+                for (int row = minRow; row <= maxRow; ++row) {
+                    for (int column = minColumn; column <= maxColumn; ++column) {
+                        ++cellStarts[row * columnCount + column + 1];
+                    }
+                }
+            }
+
+            for (int cell = 0; cell < cellCount; ++cell) {
+                cellStarts[cell + 1] += cellStarts[cell];
+            }
+
+            if (entries.length < cellStarts[cellCount]) {
+                entries = new int[Math.max(2 * entries.length, cellStarts[cellCount])];
+            }
+
+            for (int unitIndex = 0; unitIndex < unitCount; ++unitIndex) {
+                Unit unit = units[unitIndex];
+                double radius = Math.hypot(unit.getWidth(), unit.getHeight()) / 2.0D + MARGIN;
+
+                int minColumn = getCell(unit.getX() - radius, columnCount);
+                int maxColumn = getCell(unit.getX() + radius, columnCount);
+                int minRow = getCell(unit.getY() - radius, rowCount);
+                int maxRow = getCell(unit.getY() + radius, rowCount);
+
+                for (int row = minRow; row <= maxRow; ++row) {
+                    for (int column = minColumn; column <= maxColumn; ++column) {
+                        entries[cellStarts[row * columnCount + column]++] = unitIndex;
+                    }
+                }
+            }
+
+            for (int cell = cellCount; cell > 0; --cell) {
+                cellStarts[cell] = cellStarts[cell - 1];
+            }
+            cellStarts[0] = 0;
+        }
+
+        void collect(int cell, int[] marks, Query query) {
+            for (int entry = cellStarts[cell], end = cellStarts[cell + 1]; entry < end; ++entry) {
+                int unitIndex = entries[entry];
+                if (marks[unitIndex] != query.stamp) {
+                    marks[unitIndex] = query.stamp;
+                    query.add(units[unitIndex]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Result and scratch space of {@link #traceRay}, owned by the caller and reused between queries.
+     */
+    public static final class Query {
+        private Unit[] units = new Unit[16];
+        private int count;
+
+        private int[] staticMarks = new int[0];
+        private int[] dynamicMarks = new int[0];
+        private int stamp;
+
+        public int getCount() {
+            return count;
+        }
+
+        public Unit getUnit(int index) {
+            return units[index];
+        }
+
+        private void begin(int staticUnitCount, int dynamicUnitCount) {
+            Arrays.fill(units, 0, count, null);
+            count = 0;
+
+            if (staticMarks.length < staticUnitCount || dynamicMarks.length < dynamicUnitCount || ++stamp == 0) {
+                staticMarks = new int[Math.max(staticMarks.length, staticUnitCount)];
+                dynamicMarks = new int[Math.max(dynamicMarks.length, dynamicUnitCount)];
+                stamp = 1;
+            }
+        }
+
+        private void add(Unit unit) {
+            if (count == units.length) {
+                units = Arrays.copyOf(units, 2 * count);
+            }
+            units[count++] = unit;
+        }
+    }
+}
@@ -0,0 +1,190 @@
+import model.Move;
+import model.Tank;
+import model.World;
+
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Runs the strategies of the team for a tick. Sequentially the strategies run one after another on the calling
+ * thread. In parallel mode the first strategy runs on the calling thread and the others on a fixed pool with a
+ * thread per strategy; {@link #move} returns only after every strategy has finished.
+ * <p>
+ * If every strategy is a {@link TeamStrategy}, the executor updates a single {@link TeamContext} per tick on the
+ * calling thread and passes it to all of them, together with the tick budget the update starts.
+ * <p>
+ * Parallel mode relies on the strategies sharing nothing but the decoded model and the team context, which they
+ * only read.
+ */
+public final class StrategyExecutor {
+    private final Strategy[] strategies;
+    private final TeamContext teamContext;
+    private final ExecutorService executor;
+    private final MoveTask[] tasks;
+    private final Future<?>[] futures;
+
+    public StrategyExecutor(Strategy[] strategies, boolean parallel) {
+        this(strategies, parallel, 0);
+    }
+
+    /**
+     * @param tickBudgetNanos wall-clock budget of a tick for team strategies, 0 for none
+     */
+    public StrategyExecutor(Strategy[] strategies, boolean parallel, long tickBudgetNanos) {
+        this.strategies = strategies;
+        tasks = new MoveTask[strategies.length];
+        futures = new Future<?>[strategies.length];
+
+        boolean teamStrategies = true;
+        for (Strategy strategy : strategies) {
+            teamStrategies &= strategy instanceof TeamStrategy;
+        }
+        teamContext = teamStrategies ? new TeamContext(tickBudgetNanos) : null;
+
+        for (int strategyIndex = 0; strategyIndex < strategies.length; ++strategyIndex) {
+            tasks[strategyIndex] = new MoveTask(strategies[strategyIndex], teamContext);
+        }
+
+        executor = parallel && strategies.length > 1
+                ? Executors.newFixedThreadPool(strategies.length - 1, new StrategyThreadFactory())
+                : null;
+    }
+
+    public boolean isParallel() {
+        return executor != null;
+    }
+
+    /**
+     * Fills {@code moves} with the move of each strategy. Every strategy keeps a single move that is reset before
+     * each call, so the moves are only valid until the next call.
+     */
+    public void move(Tank[] playerTanks, World world, Move[] moves) {
+        if (teamContext != null) {
+            teamContext.update(world);
+        }
+
+        for (int strategyIndex = 0; strategyIndex < strategies.length; ++strategyIndex) {
+            moves[strategyIndex] = tasks[strategyIndex].bind(playerTanks[strategyIndex], world);
+        }
+
+        if (executor == null) {
+            for (MoveTask task : tasks) {
+                task.run();
+            }
+            return;
+        }
+
+        for (int strategyIndex = 1; strategyIndex < strategies.length; ++strategyIndex) {
+            futures[strategyIndex] = executor.submit(tasks[strategyIndex]);
+        }
+
+        try {
+            tasks[0].run();
+        } catch (Throwable failure) {
+            // the caller's failure wins; the others only get attached to it
+            Throwable workerFailure = join();
+            if (workerFailure != null) {
+                failure.addSuppressed(workerFailure);
+            }
+            throw failure;
+        }
+
+        Throwable workerFailure = join();
+        if (workerFailure instanceof RuntimeException) {
+            throw (RuntimeException) workerFailure;
+        }
+        if (workerFailure instanceof Error) {
+            throw (Error) workerFailure;
+        }
+    }
+
+    public void close() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Waits for every strategy on the pool.
+     *
+     * @return failure of the first failed strategy or {@code null}
+     */
+    private Throwable join() {
+        boolean interrupted = false;
+        Throwable failure = null;
+
+        for (int strategyIndex = 1; strategyIndex < futures.length; ++strategyIndex) {
+            while (true) {
+                try {
+                    futures[strategyIndex].get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    if (failure == null) {
+                        failure = e.getCause();
+                    }
+                    break;
+                }
+            }
+            futures[strategyIndex] = null;
+        }
+
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+
+        return failure;
+    }
+
+    private static final class MoveTask implements Runnable {
+        private final Strategy strategy;
+        private final TeamContext teamContext;
+        private final Move move = new Move();
+
+        private Tank self;
+        private World world;
+
+        private MoveTask(Strategy strategy, TeamContext teamContext) {
+            this.strategy = strategy;
+            this.teamContext = teamContext;
+        }
+
+        /**
+         * @return the move of the strategy, reset to what a new one holds
+         */
+        private Move bind(Tank self, World world) {
+            this.self = self;
+            this.world = world;
+
+            move.setLeftTrackPower(0.0D);
+            move.setRightTrackPower(0.0D);
+            move.setTurretTurn(0.0D);
+            move.setFireType(null);
+            return move;
+        }
+
+        @Override
+        public void run() {
+            if (teamContext == null) {
+                strategy.move(self, world, move);
+            } else {
+                ((TeamStrategy) strategy).move(self, teamContext, move);
+            }
+        }
+    }
+
+    private static final class StrategyThreadFactory implements ThreadFactory {
+        private int threadCount;
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "strategy-" + ++threadCount);
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+import model.World;
+
+/**
+ * Analysis of a tick that doesn't depend on the tank: the partition of the tanks, the spatial grid of the units
+ * that can block a shot and the distance matrix. The caller updates the context once per tick and hands it to the strategy of every tank
+ * of the team, which then only does the work relative to its own tank. The context is read-only between updates,
+ * so strategies running concurrently can share it.
+ * <p>
+ * The context also carries the {@link TickBudget} of the team, which each update starts again, and the
+ * {@link UnitTracker}. The tracker is created by the first {@link #getTracker()} call, so the team pays for it only
+ * if a strategy reads it, and every update after that extends it by a tick.
+ */
+public final class TeamContext {
+    private final SpatialGrid grid = new SpatialGrid();
+    private final DistanceMatrix distances = new DistanceMatrix();
+    private final TickBudget budget;
+
+    private WorldView view;
+    private UnitTracker tracker;
+
+    public TeamContext() {
+        this(0);
+    }
+
+    /**
+     * @param tickBudgetNanos wall-clock budget of a tick, 0 for none
+     */
+    public TeamContext(long tickBudgetNanos) {
+        budget = new TickBudget(tickBudgetNanos);
+    }
+
+    public void update(World world) {
+        budget.start();
+        view = new WorldView(world, grid, distances);
+        // set by getTracker() during an earlier tick, whose strategies have all finished
+        if (tracker != null) {
+            tracker.update(world);
+        }
+    }
+
+    public World getWorld() {
+        return view.getWorld();
+    }
+
+    public WorldView getView() {
+        return view;
+    }
+
+    /**
+     * Strategies running concurrently may call this during a tick; the tracker itself is only read until the next
+     * update.
+     *
+     * @return history of the units from the tick of the first call up to this tick
+     */
+    public synchronized UnitTracker getTracker() {
+        if (tracker == null) {
+            tracker = new UnitTracker();
+            tracker.update(view.getWorld());
+        }
+        return tracker;
+    }
+
+    public TickBudget getBudget() {
+        return budget;
+    }
+}
@@ -0,0 +1,13 @@
+import model.Move;
+import model.Tank;
+
+/**
+ * Strategy that takes the tank-independent analysis of a tick from a {@link TeamContext} shared by the team instead
+ * of repeating it for every tank.
+ */
+public interface TeamStrategy extends Strategy {
+    /**
+     * @param context context already updated with the current world
+     */
+    void move(Tank self, TeamContext context, Move move);
+}
@@ -0,0 +1,31 @@
+/**
+ * Wall-clock budget of a tick. {@link TeamContext} starts it when the tick arrives and the strategies check it
+ * between their stages and inside their longer loops, so a tick overruns the budget by at most one unit of work.
+ * A budget of zero never runs out.
+ * <p>
+ * The deadline is written once per tick before the strategies run and only read by them.
+ */
+public final class TickBudget {
+    private final long budgetNanos;
+
+    private long deadline;
+
+    public TickBudget(long budgetNanos) {
+        if (budgetNanos < 0) {
+            throw new IllegalArgumentException("Tick budget can't be negative: " + budgetNanos + '.');
+        }
+        this.budgetNanos = budgetNanos;
+    }
+
+    public void start() {
+        deadline = System.nanoTime() + budgetNanos;
+    }
+
+    public boolean isExhausted() {
+        return budgetNanos != 0 && System.nanoTime() - deadline >= 0;
+    }
+
+    public long getBudgetNanos() {
+        return budgetNanos;
+    }
+}
@@ -0,0 +1,84 @@
+import java.io.PrintStream;
+
+/**
+ * Splits the time of every Runner tick into phases: waiting for the server, decoding the PLAYER_CONTEXT message,
+ * running the strategies and sending the moves. A disabled instance ignores every call.
+ */
+public final class TickLatencies {
+    private static final Phase[] PHASES = Phase.values();
+
+    private final LatencyHistogram[] histograms;
+    private final LatencyHistogram tickHistogram;
+
+    private long phaseStartTime;
+    private long tickStartTime;
+
+    public TickLatencies(boolean enabled) {
+        if (enabled) {
+            histograms = new LatencyHistogram[PHASES.length];
+            for (int phaseIndex = 0; phaseIndex < PHASES.length; ++phaseIndex) {
+                histograms[phaseIndex] = new LatencyHistogram();
+            }
+            tickHistogram = new LatencyHistogram();
+        } else {
+            histograms = null;
+            tickHistogram = null;
+        }
+    }
+
+    public boolean isEnabled() {
+        return histograms != null;
+    }
+
+    public void start() {
+        if (histograms != null) {
+            phaseStartTime = System.nanoTime();
+        }
+    }
+
+    /**
+     * Ends the given phase, which started when the previous one ended.
+     */
+    public void mark(Phase phase) {
+        if (histograms == null) {
+            return;
+        }
+
+        long time = System.nanoTime();
+        histograms[phase.ordinal()].record(time - phaseStartTime);
+        phaseStartTime = time;
+
+        if (phase == Phase.WAIT) {
+            tickStartTime = time;
+        } else if (phase == Phase.WRITE) {
+            tickHistogram.record(time - tickStartTime);
+        }
+    }
+
+    public void print(PrintStream stream) {
+        if (histograms == null) {
+            return;
+        }
+
+        for (Phase phase : PHASES) {
+            print(stream, phase.name().toLowerCase(), histograms[phase.ordinal()]);
+        }
+        print(stream, "tick", tickHistogram);
+    }
+
+    private static void print(PrintStream stream, String phaseName, LatencyHistogram histogram) {
+        stream.println(String.format(
+                "Latency of %s [count=%d, mean=%.1f us, p50=%.1f us, p99=%.1f us, max=%.1f us].",
+                phaseName, histogram.getCount(), histogram.getMean() / 1.0E3,
+                histogram.getValueAtPercentile(50.0D) / 1.0E3, histogram.getValueAtPercentile(99.0D) / 1.0E3,
+                histogram.getMax() / 1.0E3
+        ));
+    }
+
+    public enum Phase {
+        WAIT,
+        READ,
+        MOVE,
+        WRITE
+    }
+}
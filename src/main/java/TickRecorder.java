@@ -0,0 +1,117 @@
+import java.io.Closeable;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+
+/**
+ * Writes a game as it is played: every PLAYER_CONTEXT message exactly as received and the MOVES message sent in
+ * reply. Frames are appended to the data file as {@code [int length][context][int length][moves]} and the offset
+ * of each frame is appended to the index file {@code <path>.idx}, so {@code TickReplay} can seek to any tick.
+ */
+public final class TickRecorder implements Closeable {
+    public static final String INDEX_SUFFIX = ".idx";
+
+    static final ByteOrder BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+    static final int INTEGER_SIZE_BYTES = Integer.SIZE / Byte.SIZE;
+    static final int LONG_SIZE_BYTES = Long.SIZE / Byte.SIZE;
+
+    private static final int BUFFER_SIZE_BYTES = 1 << 16;
+
+    private final FileChannel dataChannel;
+    private final FileChannel indexChannel;
+    private final ByteBuffer indexBuffer = ByteBuffer.allocate(LONG_SIZE_BYTES).order(BYTE_ORDER);
+
+    private ByteBuffer frameBuffer = ByteBuffer.allocate(BUFFER_SIZE_BYTES).order(BYTE_ORDER);
+    private long dataSize;
+
+    public TickRecorder(String path) throws IOException {
+        dataChannel = new FileOutputStream(path).getChannel();
+
+        FileChannel channel = null;
+        try {
+            channel = new FileOutputStream(path + INDEX_SUFFIX).getChannel();
+        } finally {
+            if (channel == null) {
+                dataChannel.close();
+            }
+        }
+        indexChannel = channel;
+
+        discardPlayerContext();
+    }
+
+    void discardPlayerContext() {
+        frameBuffer.clear();
+        frameBuffer.position(INTEGER_SIZE_BYTES);
+    }
+
+    void appendPlayerContext(ByteBuffer source, int from, int to) {
+        append(source, from, to);
+    }
+
+    void recordMoves(ByteBuffer messageTypeBuffer, ByteBuffer movesBuffer) throws IOException {
+        int contextEnd = frameBuffer.position();
+        frameBuffer.putInt(0, contextEnd - INTEGER_SIZE_BYTES);
+
+        ensureCapacity(INTEGER_SIZE_BYTES);
+        frameBuffer.putInt(messageTypeBuffer.position() + movesBuffer.position());
+        append(messageTypeBuffer, 0, messageTypeBuffer.position());
+        append(movesBuffer, 0, movesBuffer.position());
+
+        frameBuffer.flip();
+        int frameSize = frameBuffer.remaining();
+
+        try {
+            while (frameBuffer.hasRemaining()) {
+                dataChannel.write(frameBuffer);
+            }
+
+            indexBuffer.clear();
+            indexBuffer.putLong(dataSize);
+            indexBuffer.flip();
+
+            while (indexBuffer.hasRemaining()) {
+                indexChannel.write(indexBuffer);
+            }
+        } finally {
+            discardPlayerContext();
+        }
+
+        dataSize += frameSize;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            indexChannel.close();
+        } finally {
+            dataChannel.close();
+        }
+    }
+
+    private void append(ByteBuffer source, int from, int to) {
+        int length = to - from;
+        ensureCapacity(length);
+
+        if (source.hasArray()) {
+            frameBuffer.put(source.array(), source.arrayOffset() + from, length);
+        } else {
+            for (int position = from; position < to; ++position) {
+                frameBuffer.put(source.get(position));
+            }
+        }
+    }
+
+    private void ensureCapacity(int byteCount) {
+        if (frameBuffer.remaining() >= byteCount) {
+            return;
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate(Math.max(2 * frameBuffer.capacity(), frameBuffer.position() + byteCount));
+        frameBuffer.flip();
+        buffer.order(BYTE_ORDER).put(frameBuffer);
+        frameBuffer = buffer;
+    }
+}
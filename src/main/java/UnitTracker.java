@@ -0,0 +1,252 @@
+import model.Bonus;
+import model.Shell;
+import model.Tank;
+import model.Unit;
+import model.World;
+
+import java.util.Arrays;
+
+import static java.lang.StrictMath.PI;
+
+/**
+ * Follows tanks, shells and bonuses by id from one tick to the next. Every unit gets a slot in the {@link History}
+ * of its kind while it stays in the world, with a ring buffer of its last {@link #HISTORY_SIZE} samples. The
+ * tracker copies the values out of the model, so it works with recycled model objects too.
+ * <p>
+ * {@link #update(World)} must see the ticks in order. A unit missing from a world loses its slot and its history;
+ * updating twice with the same tick replaces the last sample.
+ */
+public final class UnitTracker {
+    public static final int HISTORY_SIZE = 8;
+
+    private final History tanks = new History();
+    private final History shells = new History();
+    private final History bonuses = new History();
+
+    public void update(World world) {
+        int tick = world.getTick();
+
+        for (Tank tank : world.getTanks()) {
+            int index = tanks.record(tank, tick);
+            tanks.turretRelativeAngles[index] = tank.getTurretRelativeAngle();
+            tanks.crewHealths[index] = tank.getCrewHealth();
+            tanks.hullDurabilities[index] = tank.getHullDurability();
+        }
+        tanks.removeMissing(tick);
+
+        for (Shell shell : world.getShells()) {
+            shells.record(shell, tick);
+        }
+        shells.removeMissing(tick);
+
+        for (Bonus bonus : world.getBonuses()) {
+            bonuses.record(bonus, tick);
+        }
+        bonuses.removeMissing(tick);
+    }
+
+    public History getTanks() {
+        return tanks;
+    }
+
+    public History getShells() {
+        return shells;
+    }
+
+    public History getBonuses() {
+        return bonuses;
+    }
+
+    /**
+     * Samples of the units of one kind. A sample is addressed by the slot of the unit and its age: 0 is the last
+     * tick the unit was seen, 1 the one before and so on up to {@link #getSampleCount}{@code (slot) - 1}. Turret
+     * angles, crew health and hull durability are only recorded for tanks.
+     */
+    public static final class History {
+        private final LongSlotMap slots = new LongSlotMap();
+
+        private long[] ids = new long[0];
+        private int[] lastTicks = new int[0];
+        private int[] recordedCounts = new int[0];
+        private int[] freeSlots = new int[0];
+        private int freeSlotCount;
+        private int slotCount;
+
+        private int[] ticks = new int[0];
+        private double[] xs = new double[0];
+        private double[] ys = new double[0];
+        private double[] speedXs = new double[0];
+        private double[] speedYs = new double[0];
+        private double[] angles = new double[0];
+        private double[] angularSpeeds = new double[0];
+        private double[] turretRelativeAngles = new double[0];
+        private int[] crewHealths = new int[0];
+        private int[] hullDurabilities = new int[0];
+
+        /**
+         * @return slot of the unit or {@link LongSlotMap#ABSENT} if it isn't tracked
+         */
+        public int getSlot(long id) {
+            return slots.get(id);
+        }
+
+        /**
+         * @return number of tracked units
+         */
+        public int size() {
+            return slots.size();
+        }
+
+        public int getSampleCount(int slot) {
+            return Math.min(recordedCounts[slot], HISTORY_SIZE);
+        }
+
+        public int getTick(int slot, int age) {
+            return ticks[indexOf(slot, age)];
+        }
+
+        public double getX(int slot, int age) {
+            return xs[indexOf(slot, age)];
+        }
+
+        public double getY(int slot, int age) {
+            return ys[indexOf(slot, age)];
+        }
+
+        public double getSpeedX(int slot, int age) {
+            return speedXs[indexOf(slot, age)];
+        }
+
+        public double getSpeedY(int slot, int age) {
+            return speedYs[indexOf(slot, age)];
+        }
+
+        public double getAngle(int slot, int age) {
+            return angles[indexOf(slot, age)];
+        }
+
+        public double getAngularSpeed(int slot, int age) {
+            return angularSpeeds[indexOf(slot, age)];
+        }
+
+        public double getTurretRelativeAngle(int slot, int age) {
+            return turretRelativeAngles[indexOf(slot, age)];
+        }
+
+        public int getCrewHealth(int slot, int age) {
+            return crewHealths[indexOf(slot, age)];
+        }
+
+        public int getHullDurability(int slot, int age) {
+            return hullDurabilities[indexOf(slot, age)];
+        }
+
+        /**
+         * @return change of the speed along x per tick between the last two samples, 0 with a single sample
+         */
+        public double getAccelerationX(int slot) {
+            return getSampleCount(slot) < 2 ? 0.0D
+                    : (getSpeedX(slot, 0) - getSpeedX(slot, 1)) / (getTick(slot, 0) - getTick(slot, 1));
+        }
+
+        /**
+         * @return change of the speed along y per tick between the last two samples, 0 with a single sample
+         */
+        public double getAccelerationY(int slot) {
+            return getSampleCount(slot) < 2 ? 0.0D
+                    : (getSpeedY(slot, 0) - getSpeedY(slot, 1)) / (getTick(slot, 0) - getTick(slot, 1));
+        }
+
+        /**
+         * @return turn of the turret relative to the hull per tick between the last two samples, 0 with a single
+         * sample
+         */
+        public double getTurretSlew(int slot) {
+            if (getSampleCount(slot) < 2) {
+                return 0.0D;
+            }
+
+            double turn = getTurretRelativeAngle(slot, 0) - getTurretRelativeAngle(slot, 1);
+            while (turn > PI) {
+                turn -= 2.0D * PI;
+            }
+            while (turn < -PI) {
+                turn += 2.0D * PI;
+            }
+            return turn / (getTick(slot, 0) - getTick(slot, 1));
+        }
+
+        private int indexOf(int slot, int age) {
+            if (age < 0 || age >= getSampleCount(slot)) {
+                throw new IndexOutOfBoundsException("No sample of age " + age + " in slot " + slot + '.');
+            }
+            return slot * HISTORY_SIZE + ((recordedCounts[slot] - 1 - age) & (HISTORY_SIZE - 1));
+        }
+
+        /**
+         * @return index of the new sample in the sample columns
+         */
+        private int record(Unit unit, int tick) {
+            long id = unit.getId();
+            int slot = slots.get(id);
+            if (slot == LongSlotMap.ABSENT) {
+                slot = allocateSlot();
+                slots.put(id, slot);
+                ids[slot] = id;
+                recordedCounts[slot] = 0;
+            }
+
+            if (recordedCounts[slot] == 0 || lastTicks[slot] != tick) {
+                ++recordedCounts[slot];
+            }
+            lastTicks[slot] = tick;
+
+            int index = indexOf(slot, 0);
+            ticks[index] = tick;
+            xs[index] = unit.getX();
+            ys[index] = unit.getY();
+            speedXs[index] = unit.getSpeedX();
+            speedYs[index] = unit.getSpeedY();
+            angles[index] = unit.getAngle();
+            angularSpeeds[index] = unit.getAngularSpeed();
+            return index;
+        }
+
+        private void removeMissing(int tick) {
+            for (int slot = 0; slot < slotCount; ++slot) {
+                if (recordedCounts[slot] > 0 && lastTicks[slot] != tick) {
+                    slots.remove(ids[slot]);
+                    recordedCounts[slot] = 0;
+                    freeSlots[freeSlotCount++] = slot;
+                }
+            }
+        }
+
+        private int allocateSlot() {
+            if (freeSlotCount > 0) {
+                return freeSlots[--freeSlotCount];
+            }
+
+            if (slotCount == ids.length) {
+                int capacity = Math.max(16, slotCount * 2);
+                ids = Arrays.copyOf(ids, capacity);
+                lastTicks = Arrays.copyOf(lastTicks, capacity);
+                recordedCounts = Arrays.copyOf(recordedCounts, capacity);
+                freeSlots = Arrays.copyOf(freeSlots, capacity);
+
+                int sampleCapacity = capacity * HISTORY_SIZE;
+                ticks = Arrays.copyOf(ticks, sampleCapacity);
+                xs = Arrays.copyOf(xs, sampleCapacity);
+                ys = Arrays.copyOf(ys, sampleCapacity);
+                speedXs = Arrays.copyOf(speedXs, sampleCapacity);
+                speedYs = Arrays.copyOf(speedYs, sampleCapacity);
+                angles = Arrays.copyOf(angles, sampleCapacity);
+                angularSpeeds = Arrays.copyOf(angularSpeeds, sampleCapacity);
+                turretRelativeAngles = Arrays.copyOf(turretRelativeAngles, sampleCapacity);
+                crewHealths = Arrays.copyOf(crewHealths, sampleCapacity);
+                hullDurabilities = Arrays.copyOf(hullDurabilities, sampleCapacity);
+            }
+            return slotCount++;
+        }
+    }
+}
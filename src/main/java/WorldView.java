@@ -0,0 +1,185 @@
+import model.Tank;
+import model.World;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Tanks of one tick partitioned once into alive, dead, alive enemies and the alive team (teammates and self).
+ * Each partition is available as indices into {@link #getTank(int)} and as an unmodifiable list.
+ * The index arrays are shared and must not be modified. The view also carries the spatial grid and the distance
+ * matrix filled for its tick.
+ */
+public final class WorldView {
+    private final World world;
+    private final Tank[] tanks;
+    private final SpatialGrid grid;
+    private final DistanceMatrix distances;
+
+    private final int[] aliveIndices;
+    private final int[] deadIndices;
+    private final int[] aliveEnemyIndices;
+    private final int[] aliveTeamIndices;
+
+    private final List<Tank> allTanks;
+    private final List<Tank> aliveTanks;
+    private final List<Tank> deadTanks;
+    private final List<Tank> aliveEnemies;
+    private final List<Tank> aliveTeam;
+
+    public WorldView(World world, SpatialGrid grid) {
+        this(world, grid, new DistanceMatrix());
+    }
+
+    /**
+     * @param grid grid to index this tick's units into; it is owned by the caller and kept between ticks
+     * @param distances matrix to fill with this tick's distances; it is owned by the caller and kept between ticks
+     */
+    public WorldView(World world, SpatialGrid grid, DistanceMatrix distances) {
+        this.world = world;
+        this.grid = grid;
+        this.distances = distances;
+        tanks = world.getTanks();
+
+        int aliveCount = 0;
+        int aliveEnemyCount = 0;
+
+        for (Tank tank : tanks) {
+            if (BaseStrategyImpl.isAlive(tank)) {
+                ++aliveCount;
+                if (!tank.isTeammate()) {
+                    ++aliveEnemyCount;
+                }
+            }
+        }
+
+        aliveIndices = new int[aliveCount];
+        deadIndices = new int[tanks.length - aliveCount];
+        aliveEnemyIndices = new int[aliveEnemyCount];
+        aliveTeamIndices = new int[aliveCount - aliveEnemyCount];
+
+        int aliveIndex = 0;
+        int deadIndex = 0;
+        int aliveEnemyIndex = 0;
+        int aliveTeamIndex = 0;
+
+        for (int tankIndex = 0; tankIndex < tanks.length; ++tankIndex) {
+            Tank tank = tanks[tankIndex];
+
+            if (BaseStrategyImpl.isAlive(tank)) {
+                aliveIndices[aliveIndex++] = tankIndex;
+                if (tank.isTeammate()) {
+                    aliveTeamIndices[aliveTeamIndex++] = tankIndex;
+                } else {
+                    aliveEnemyIndices[aliveEnemyIndex++] = tankIndex;
+                }
+            } else {
+                deadIndices[deadIndex++] = tankIndex;
+            }
+        }
+
+        allTanks = Collections.unmodifiableList(Arrays.asList(tanks));
+        aliveTanks = toList(aliveIndices);
+        deadTanks = toList(deadIndices);
+        aliveEnemies = toList(aliveEnemyIndices);
+        aliveTeam = toList(aliveTeamIndices);
+
+        grid.update(this);
+        distances.update(this);
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    public SpatialGrid getGrid() {
+        return grid;
+    }
+
+    public DistanceMatrix getDistances() {
+        return distances;
+    }
+
+    public int getTankCount() {
+        return tanks.length;
+    }
+
+    public Tank getTank(int index) {
+        return tanks[index];
+    }
+
+    /**
+     * @return index of the tank with the same id, or -1
+     */
+    public int indexOf(Tank tank) {
+        for (int tankIndex = 0; tankIndex < tanks.length; ++tankIndex) {
+            if (tanks[tankIndex].getId() == tank.getId()) {
+                return tankIndex;
+            }
+        }
+
+        return -1;
+    }
+
+    public int[] getAliveIndices() {
+        return aliveIndices;
+    }
+
+    public int[] getDeadIndices() {
+        return deadIndices;
+    }
+
+    public int[] getAliveEnemyIndices() {
+        return aliveEnemyIndices;
+    }
+
+    public int[] getAliveTeamIndices() {
+        return aliveTeamIndices;
+    }
+
+    public List<Tank> getTanks() {
+        return allTanks;
+    }
+
+    public List<Tank> getAliveTanks() {
+        return aliveTanks;
+    }
+
+    public List<Tank> getDeadTanks() {
+        return deadTanks;
+    }
+
+    public List<Tank> getAliveEnemies() {
+        return aliveEnemies;
+    }
+
+    /**
+     * @return alive tanks of our team, including self if it is alive
+     */
+    public List<Tank> getAliveTeam() {
+        return aliveTeam;
+    }
+
+    public int getAliveTeammateCount(Tank self) {
+        int count = aliveTeamIndices.length;
+
+        for (int tankIndex : aliveTeamIndices) {
+            if (tanks[tankIndex].getId() == self.getId()) {
+                return count - 1;
+            }
+        }
+
+        return count;
+    }
+
+    private List<Tank> toList(int[] indices) {
+        Tank[] partition = new Tank[indices.length];
+
+        for (int i = 0; i < indices.length; ++i) {
+            partition[i] = tanks[indices[i]];
+        }
+
+        return Collections.unmodifiableList(Arrays.asList(partition));
+    }
+}
@@ -0,0 +1,75 @@
+package model;
+
+/**
+ * Быстрый режим геометрии для {@link Unit} и {@link Tank}. В этом режиме расстояние считается через
+ * {@link Math#sqrt(double)} вместо {@link StrictMath#hypot(double, double)}, угол — через {@link #atan2(double, double)}
+ * с погрешностью не более {@link #MAX_ATAN2_ERROR} радиан, а нормализация угла выполняется без циклов.
+ * <p>
+ * Режим общий для всей JVM и выключен по умолчанию. Его задают один раз до запуска стратегий: {@code Runner} при
+ * старте, а {@code BotHost} — один раз для всех сессий, так что одна игра не может переключить его для другой.
+ */
+public final class FastMath {
+    /**
+     * Наибольшая абсолютная погрешность {@link #atan2(double, double)} в радианах.
+     */
+    public static final double MAX_ATAN2_ERROR = 1.0E-8D;
+
+    private static final double PI = StrictMath.PI;
+    private static final double HALF_PI = PI / 2.0D;
+    private static final double SIXTH_PI = PI / 6.0D;
+    private static final double TWO_PI = 2.0D * PI;
+    private static final double SQRT_3 = StrictMath.sqrt(3.0D);
+    private static final double TAN_TWELFTH_PI = 2.0D - SQRT_3;
+
+    private static boolean enabled;
+
+    public static boolean isEnabled() {
+        return enabled;
+    }
+
+    public static void setEnabled(boolean enabled) {
+        FastMath.enabled = enabled;
+    }
+
+    /**
+     * @return Возвращает угол вектора ({@code x}, {@code y}) в диапазоне [{@code -PI}, {@code PI}]. Аргумент сводится
+     *         к отрезку [0, tg(PI / 12)], на котором арктангенс приближается отрезком ряда Тейлора.
+     */
+    public static double atan2(double y, double x) {
+        double absX = Math.abs(x);
+        double absY = Math.abs(y);
+
+        if (!(absX + absY > 0.0D) || absX + absY == Double.POSITIVE_INFINITY) {
+            return StrictMath.atan2(y, x);
+        }
+
+        boolean steep = absY > absX;
+        double ratio = steep ? absX / absY : absY / absX;
+        double offset = 0.0D;
+
+        if (ratio > TAN_TWELFTH_PI) {
+            ratio = (ratio * SQRT_3 - 1.0D) / (ratio + SQRT_3);
+            offset = SIXTH_PI;
+        }
+
+        double square = ratio * ratio;
+        double angle = offset + ratio * (1.0D + square * (-1.0D / 3.0D + square * (1.0D / 5.0D
+                + square * (-1.0D / 7.0D + square * (1.0D / 9.0D + square * (-1.0D / 11.0D))))));
+
+        if (steep) {
+            angle = HALF_PI - angle;
+        }
+        if (x < 0.0D) {
+            angle = PI - angle;
+        }
+
+        return Math.copySign(angle, y);
+    }
+
+    /**
+     * @return Возвращает угол, равный {@code angle} по модулю {@code 2 * PI}, в диапазоне [{@code -PI}, {@code PI}].
+     */
+    public static double normalizeAngle(double angle) {
+        return angle - TWO_PI * Math.rint(angle / TWO_PI);
+    }
+}
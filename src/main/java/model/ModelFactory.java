@@ -0,0 +1,79 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Создаёт объекты модели при чтении очередного тика. Каждый вызов возвращает новые объекты,
+ * кроме препятствий: неизменившееся препятствие возвращается тем же объектом, что и на прошлом тике,
+ * чтобы его геометрия вычислялась один раз за игру.
+ */
+public class ModelFactory {
+    private Obstacle[] lastObstacles = new Obstacle[0];
+
+    public Player[] newPlayers(int count) {
+        return new Player[count];
+    }
+
+    public Player newPlayer(int index, String name, int score, boolean strategyCrashed) {
+        return new Player(name, score, strategyCrashed);
+    }
+
+    public Obstacle[] newObstacles(int count) {
+        return new Obstacle[count];
+    }
+
+    public Obstacle newObstacle(int index, long id, double width, double height, double x, double y) {
+        if (index >= lastObstacles.length) {
+            lastObstacles = Arrays.copyOf(lastObstacles, index + 1);
+        }
+
+        Obstacle obstacle = lastObstacles[index];
+        if (obstacle == null || !obstacle.isSame(id, width, height, x, y)) {
+            obstacle = lastObstacles[index] = new Obstacle(id, width, height, x, y);
+        }
+        return obstacle;
+    }
+
+    public Tank[] newTanks(int count) {
+        return new Tank[count];
+    }
+
+    public Tank newTank(
+            int index, long id, String playerName, int teammateIndex,
+            double x, double y, double speedX, double speedY, double angle, double angularSpeed,
+            double turretRelativeAngle, int crewHealth, int hullDurability,
+            int reloadingTime, int remainingReloadingTime, int premiumShellCount, boolean teammate, TankType type) {
+        return new Tank(
+                id, playerName, teammateIndex, x, y, speedX, speedY, angle, angularSpeed,
+                turretRelativeAngle, crewHealth, hullDurability,
+                reloadingTime, remainingReloadingTime, premiumShellCount, teammate, type
+        );
+    }
+
+    public Shell[] newShells(int count) {
+        return new Shell[count];
+    }
+
+    public Shell newShell(
+            int index, long id, String playerName, double width, double height, double x, double y,
+            double speedX, double speedY, double angle, double angularSpeed, ShellType type) {
+        return new Shell(id, playerName, width, height, x, y, speedX, speedY, angle, angularSpeed, type);
+    }
+
+    public Bonus[] newBonuses(int count) {
+        return new Bonus[count];
+    }
+
+    public Bonus newBonus(int index, long id, double width, double height, double x, double y, BonusType type) {
+        return new Bonus(id, width, height, x, y, type);
+    }
+
+    public World newWorld(int tick, double width, double height, Player[] players,
+                          Obstacle[] obstacles, Tank[] tanks, Shell[] shells, Bonus[] bonuses) {
+        return new World(tick, width, height, players, obstacles, tanks, shells, bonuses);
+    }
+
+    public PlayerContext newPlayerContext(Tank[] tanks, World world) {
+        return new PlayerContext(tanks, world);
+    }
+}
@@ -0,0 +1,193 @@
+package model;
+
+import java.util.Arrays;
+
+/**
+ * Переиспользует объекты модели от тика к тику вместо создания новых.
+ * Пул растёт до наибольшего встреченного количества объектов каждого типа.
+ * Объекты, полученные на предыдущем тике, перезаписываются при чтении следующего,
+ * поэтому хранить ссылки на них между тиками нельзя.
+ */
+public final class ModelPool extends ModelFactory {
+    private Player[] players = new Player[0];
+    private Obstacle[] obstacles = new Obstacle[0];
+    private Tank[] tanks = new Tank[0];
+    private Shell[] shells = new Shell[0];
+    private Bonus[] bonuses = new Bonus[0];
+
+    private Player[][] playerArrays = new Player[0][];
+    private Obstacle[][] obstacleArrays = new Obstacle[0][];
+    private Tank[][] tankArrays = new Tank[0][];
+    private Shell[][] shellArrays = new Shell[0][];
+    private Bonus[][] bonusArrays = new Bonus[0][];
+
+    private World world;
+    private PlayerContext playerContext;
+
+    @Override
+    public Player[] newPlayers(int count) {
+        if (count >= playerArrays.length) {
+            playerArrays = Arrays.copyOf(playerArrays, count + 1);
+        }
+        if (playerArrays[count] == null) {
+            playerArrays[count] = new Player[count];
+        }
+        return playerArrays[count];
+    }
+
+    @Override
+    public Player newPlayer(int index, String name, int score, boolean strategyCrashed) {
+        if (index >= players.length) {
+            players = Arrays.copyOf(players, index + 1);
+        }
+
+        Player player = players[index];
+        if (player == null) {
+            player = players[index] = new Player(name, score, strategyCrashed);
+        } else {
+            player.set(name, score, strategyCrashed);
+        }
+        return player;
+    }
+
+    @Override
+    public Obstacle[] newObstacles(int count) {
+        if (count >= obstacleArrays.length) {
+            obstacleArrays = Arrays.copyOf(obstacleArrays, count + 1);
+        }
+        if (obstacleArrays[count] == null) {
+            obstacleArrays[count] = new Obstacle[count];
+        }
+        return obstacleArrays[count];
+    }
+
+    @Override
+    public Obstacle newObstacle(int index, long id, double width, double height, double x, double y) {
+        if (index >= obstacles.length) {
+            obstacles = Arrays.copyOf(obstacles, index + 1);
+        }
+
+        Obstacle obstacle = obstacles[index];
+        if (obstacle == null) {
+            obstacle = obstacles[index] = new Obstacle(id, width, height, x, y);
+        } else if (!obstacle.isSame(id, width, height, x, y)) {
+            obstacle.set(id, width, height, x, y);
+        }
+        return obstacle;
+    }
+
+    @Override
+    public Tank[] newTanks(int count) {
+        if (count >= tankArrays.length) {
+            tankArrays = Arrays.copyOf(tankArrays, count + 1);
+        }
+        if (tankArrays[count] == null) {
+            tankArrays[count] = new Tank[count];
+        }
+        return tankArrays[count];
+    }
+
+    @Override
+    public Tank newTank(
+            int index, long id, String playerName, int teammateIndex,
+            double x, double y, double speedX, double speedY, double angle, double angularSpeed,
+            double turretRelativeAngle, int crewHealth, int hullDurability,
+            int reloadingTime, int remainingReloadingTime, int premiumShellCount, boolean teammate, TankType type) {
+        if (index >= tanks.length) {
+            tanks = Arrays.copyOf(tanks, index + 1);
+        }
+
+        Tank tank = tanks[index];
+        if (tank == null) {
+            tank = tanks[index] = new Tank(
+                    id, playerName, teammateIndex, x, y, speedX, speedY, angle, angularSpeed,
+                    turretRelativeAngle, crewHealth, hullDurability,
+                    reloadingTime, remainingReloadingTime, premiumShellCount, teammate, type
+            );
+        } else {
+            tank.set(
+                    id, playerName, teammateIndex, x, y, speedX, speedY, angle, angularSpeed,
+                    turretRelativeAngle, crewHealth, hullDurability,
+                    reloadingTime, remainingReloadingTime, premiumShellCount, teammate, type
+            );
+        }
+        return tank;
+    }
+
+    @Override
+    public Shell[] newShells(int count) {
+        if (count >= shellArrays.length) {
+            shellArrays = Arrays.copyOf(shellArrays, count + 1);
+        }
+        if (shellArrays[count] == null) {
+            shellArrays[count] = new Shell[count];
+        }
+        return shellArrays[count];
+    }
+
+    @Override
+    public Shell newShell(
+            int index, long id, String playerName, double width, double height, double x, double y,
+            double speedX, double speedY, double angle, double angularSpeed, ShellType type) {
+        if (index >= shells.length) {
+            shells = Arrays.copyOf(shells, index + 1);
+        }
+
+        Shell shell = shells[index];
+        if (shell == null) {
+            shell = shells[index] = new Shell(
+                    id, playerName, width, height, x, y, speedX, speedY, angle, angularSpeed, type
+            );
+        } else {
+            shell.set(id, playerName, width, height, x, y, speedX, speedY, angle, angularSpeed, type);
+        }
+        return shell;
+    }
+
+    @Override
+    public Bonus[] newBonuses(int count) {
+        if (count >= bonusArrays.length) {
+            bonusArrays = Arrays.copyOf(bonusArrays, count + 1);
+        }
+        if (bonusArrays[count] == null) {
+            bonusArrays[count] = new Bonus[count];
+        }
+        return bonusArrays[count];
+    }
+
+    @Override
+    public Bonus newBonus(int index, long id, double width, double height, double x, double y, BonusType type) {
+        if (index >= bonuses.length) {
+            bonuses = Arrays.copyOf(bonuses, index + 1);
+        }
+
+        Bonus bonus = bonuses[index];
+        if (bonus == null) {
+            bonus = bonuses[index] = new Bonus(id, width, height, x, y, type);
+        } else {
+            bonus.set(id, width, height, x, y, type);
+        }
+        return bonus;
+    }
+
+    @Override
+    public World newWorld(int tick, double width, double height, Player[] players,
+                          Obstacle[] obstacles, Tank[] tanks, Shell[] shells, Bonus[] bonuses) {
+        if (world == null) {
+            world = new World(tick, width, height, players, obstacles, tanks, shells, bonuses);
+        } else {
+            world.set(tick, width, height, players, obstacles, tanks, shells, bonuses);
+        }
+        return world;
+    }
+
+    @Override
+    public PlayerContext newPlayerContext(Tank[] tanks, World world) {
+        if (playerContext == null) {
+            playerContext = new PlayerContext(tanks, world);
+        } else {
+            playerContext.set(tanks, world);
+        }
+        return playerContext;
+    }
+}
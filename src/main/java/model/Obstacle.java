@@ -7,4 +7,12 @@ public final class Obstacle extends Unit {
     public Obstacle(long id, double width, double height, double x, double y) {
         super(id, width, height, x, y, 0.0D, 0.0D, 0.0D, 0.0D);
     }
+
+    void set(long id, double width, double height, double x, double y) {
+        set(id, width, height, x, y, 0.0D, 0.0D, 0.0D, 0.0D);
+    }
+
+    boolean isSame(long id, double width, double height, double x, double y) {
+        return getId() == id && getWidth() == width && getHeight() == height && getX() == x && getY() == y;
+    }
 }
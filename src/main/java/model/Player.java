@@ -4,11 +4,15 @@ package model;
  * Содержит данные о текущем состоянии игрока.
  */
 public final class Player {
-    private final String name;
-    private final int score;
-    private final boolean strategyCrashed;
+    private String name;
+    private int score;
+    private boolean strategyCrashed;
 
     public Player(String name, int score, boolean strategyCrashed) {
+        set(name, score, strategyCrashed);
+    }
+
+    void set(String name, int score, boolean strategyCrashed) {
         this.name = name;
         this.score = score;
         this.strategyCrashed = strategyCrashed;
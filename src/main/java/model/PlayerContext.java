@@ -3,11 +3,15 @@ package model;
 import java.util.Arrays;
 
 public final class PlayerContext {
-    private final Tank[] tanks;
-    private final World world;
+    private Tank[] tanks;
+    private World world;
 
     public PlayerContext(Tank[] tanks, World world) {
-        this.tanks = Arrays.copyOf(tanks, tanks.length);
+        set(Arrays.copyOf(tanks, tanks.length), world);
+    }
+
+    void set(Tank[] tanks, World world) {
+        this.tanks = tanks;
         this.world = world;
     }
 
@@ -4,8 +4,8 @@ package model;
  * Класс, определяющий снаряд. Содержит также все свойства юнита.
  */
 public final class Shell extends Unit {
-    private final String playerName;
-    private final ShellType type;
+    private String playerName;
+    private ShellType type;
 
     public Shell(
             long id, String playerName, double width, double height, double x, double y,
@@ -16,6 +16,15 @@ public final class Shell extends Unit {
         this.type = type;
     }
 
+    void set(
+            long id, String playerName, double width, double height, double x, double y,
+            double speedX, double speedY, double angle, double angularSpeed, ShellType type) {
+        set(id, width, height, x, y, speedX, speedY, angle, angularSpeed);
+
+        this.playerName = playerName;
+        this.type = type;
+    }
+
     /**
      * @return Возвращает имя игрока --- владельца танка, выпустившего снаряд.
      */
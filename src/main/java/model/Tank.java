@@ -7,16 +7,16 @@ import static java.lang.StrictMath.atan2;
  * Класс, определяющий танк. Содержит также все свойства юнита.
  */
 public final class Tank extends Unit {
-    private final String playerName;
-    private final int teammateIndex;
-    private final double turretRelativeAngle;
-    private final int crewHealth;
-    private final int hullDurability;
-    private final int reloadingTime;
-    private final int remainingReloadingTime;
-    private final int premiumShellCount;
-    private final boolean teammate;
-    private final TankType type;
+    private String playerName;
+    private int teammateIndex;
+    private double turretRelativeAngle;
+    private int crewHealth;
+    private int hullDurability;
+    private int reloadingTime;
+    private int remainingReloadingTime;
+    private int premiumShellCount;
+    private boolean teammate;
+    private TankType type;
 
     public Tank(
             long id, String playerName, int teammateIndex,
@@ -24,7 +24,27 @@ public final class Tank extends Unit {
             double turretRelativeAngle, int crewHealth, int hullDurability,
             int reloadingTime, int remainingReloadingTime, int premiumShellCount, boolean teammate, TankType type) {
         super(id, type.getWidth(), type.getHeight(), x, y, speedX, speedY, angle, angularSpeed);
+        setTank(
+                playerName, teammateIndex, turretRelativeAngle, crewHealth, hullDurability,
+                reloadingTime, remainingReloadingTime, premiumShellCount, teammate, type
+        );
+    }
+
+    void set(
+            long id, String playerName, int teammateIndex,
+            double x, double y, double speedX, double speedY, double angle, double angularSpeed,
+            double turretRelativeAngle, int crewHealth, int hullDurability,
+            int reloadingTime, int remainingReloadingTime, int premiumShellCount, boolean teammate, TankType type) {
+        set(id, type.getWidth(), type.getHeight(), x, y, speedX, speedY, angle, angularSpeed);
+        setTank(
+                playerName, teammateIndex, turretRelativeAngle, crewHealth, hullDurability,
+                reloadingTime, remainingReloadingTime, premiumShellCount, teammate, type
+        );
+    }
 
+    private void setTank(
+            String playerName, int teammateIndex, double turretRelativeAngle, int crewHealth, int hullDurability,
+            int reloadingTime, int remainingReloadingTime, int premiumShellCount, boolean teammate, TankType type) {
         this.playerName = playerName;
         this.teammateIndex = teammateIndex;
         this.turretRelativeAngle = turretRelativeAngle;
@@ -203,6 +223,12 @@ public final class Tank extends Unit {
      *         орудием танка и вектором из центра танка (начала орудия) к указанной точке.
      */
     public double getTurretAngleTo(double x, double y) {
+        if (FastMath.isEnabled()) {
+            return FastMath.normalizeAngle(
+                    FastMath.atan2(y - this.getY(), x - this.getX()) - getAngle() - turretRelativeAngle
+            );
+        }
+
         double absoluteAngleTo = atan2(y - this.getY(), x - this.getX());
         double relativeAngleTo = absoluteAngleTo - getAngle() - turretRelativeAngle;
 
@@ -6,19 +6,27 @@ import static java.lang.StrictMath.*;
  * Базовый класс для определения объектов (<<юнитов>>) на игровом поле.
  */
 public abstract class Unit {
-    private final long id;
-    private final double width;
-    private final double height;
-    private final double x;
-    private final double y;
-    private final double speedX;
-    private final double speedY;
-    private final double angle;
-    private final double angularSpeed;
+    private long id;
+    private double width;
+    private double height;
+    private double x;
+    private double y;
+    private double speedX;
+    private double speedY;
+    private double angle;
+    private double angularSpeed;
+
+    private Geometry geometry;
 
     protected Unit(
             long id, double width, double height, double x, double y,
             double speedX, double speedY, double angle, double angularSpeed) {
+        set(id, width, height, x, y, speedX, speedY, angle, angularSpeed);
+    }
+
+    final void set(
+            long id, double width, double height, double x, double y,
+            double speedX, double speedY, double angle, double angularSpeed) {
         this.id = id;
         this.width = width;
         this.height = height;
@@ -28,6 +36,7 @@ public abstract class Unit {
         this.speedY = speedY;
         this.angle = angle;
         this.angularSpeed = angularSpeed;
+        this.geometry = null;
     }
 
     /**
@@ -111,6 +120,10 @@ public abstract class Unit {
      *         данного объекта и вектором из центра данного объекта к указанной точке.
      */
     public double getAngleTo(double x, double y) {
+        if (FastMath.isEnabled()) {
+            return FastMath.normalizeAngle(FastMath.atan2(y - this.y, x - this.x) - angle);
+        }
+
         double absoluteAngleTo = atan2(y - this.y, x - this.x);
         double relativeAngleTo = absoluteAngleTo - angle;
 
@@ -155,6 +168,12 @@ public abstract class Unit {
      * @return Возвращает расстояние до точки от центра данного объекта.
      */
     public double getDistanceTo(double x, double y) {
+        if (FastMath.isEnabled()) {
+            double dx = x - this.x;
+            double dy = y - this.y;
+            return Math.sqrt(dx * dx + dy * dy);
+        }
+
         return hypot(x - this.x, y - this.y);
     }
 
@@ -172,4 +191,103 @@ public abstract class Unit {
     public double getDistanceTo(Unit unit) {
         return getDistanceTo(unit.x, unit.y);
     }
+
+    /**
+     * @param x X-координата точки.
+     * @param y Y-координата точки.
+     * @return Возвращает квадрат расстояния до точки от центра данного объекта. Подходит для сравнения расстояний
+     *         и не зависит от режима {@link FastMath}.
+     */
+    public double getSquaredDistanceTo(double x, double y) {
+        double dx = x - this.x;
+        double dy = y - this.y;
+        return dx * dx + dy * dy;
+    }
+
+    /**
+     * @param unit Объект, до центра которого необходимо определить квадрат расстояния.
+     * @return Возвращает квадрат расстояния от центра данного объекта до центра указанного объекта.
+     */
+    public double getSquaredDistanceTo(Unit unit) {
+        return getSquaredDistanceTo(unit.x, unit.y);
+    }
+
+    /**
+     * @return Возвращает прямоугольник объекта. Он вычисляется при первом обращении и хранится,
+     *         пока объект не изменится.
+     */
+    public final Geometry getGeometry() {
+        Geometry geometry = this.geometry;
+        if (geometry == null) {
+            geometry = new Geometry(x, y, angle, width / 2.0D, height / 2.0D);
+            this.geometry = geometry;
+        }
+        return geometry;
+    }
+
+    /**
+     * Прямоугольник объекта: ширина откладывается вдоль направления объекта, высота — поперёк.
+     * Все поля неизменяемы, поэтому экземпляр можно безопасно передавать между потоками.
+     */
+    public static final class Geometry {
+        private final double cos;
+        private final double sin;
+        private final double halfWidth;
+        private final double halfHeight;
+        private final double[] cornerXs;
+        private final double[] cornerYs;
+
+        private Geometry(double x, double y, double angle, double halfWidth, double halfHeight) {
+            this.cos = StrictMath.cos(angle);
+            this.sin = StrictMath.sin(angle);
+            this.halfWidth = halfWidth;
+            this.halfHeight = halfHeight;
+
+            double widthX = halfWidth * cos;
+            double widthY = halfWidth * sin;
+            double heightX = -halfHeight * sin;
+            double heightY = halfHeight * cos;
+
+            cornerXs = new double[]{x + widthX + heightX, x - widthX + heightX, x - widthX - heightX, x + widthX - heightX};
+            cornerYs = new double[]{y + widthY + heightY, y - widthY + heightY, y - widthY - heightY, y + widthY - heightY};
+        }
+
+        /**
+         * @return Возвращает косинус угла поворота объекта.
+         */
+        public double getCos() {
+            return cos;
+        }
+
+        /**
+         * @return Возвращает синус угла поворота объекта.
+         */
+        public double getSin() {
+            return sin;
+        }
+
+        public double getHalfWidth() {
+            return halfWidth;
+        }
+
+        public double getHalfHeight() {
+            return halfHeight;
+        }
+
+        /**
+         * @param index Номер угла от 0 до 3, углы перечислены по порядку обхода.
+         * @return Возвращает X-координату угла прямоугольника.
+         */
+        public double getCornerX(int index) {
+            return cornerXs[index];
+        }
+
+        /**
+         * @param index Номер угла от 0 до 3, углы перечислены по порядку обхода.
+         * @return Возвращает Y-координату угла прямоугольника.
+         */
+        public double getCornerY(int index) {
+            return cornerYs[index];
+        }
+    }
 }
@@ -6,25 +6,37 @@ import java.util.Arrays;
  * Содержит описание игрового мира и позволяет получить списки различных юнитов, присутствующих на поле боя.
  */
 public final class World {
-    private final int tick;
-    private final double width;
-    private final double height;
-    private final Player[] players;
-    private final Obstacle[] obstacles;
-    private final Tank[] tanks;
-    private final Shell[] shells;
-    private final Bonus[] bonuses;
+    private int tick;
+    private double width;
+    private double height;
+    private Player[] players;
+    private Obstacle[] obstacles;
+    private Tank[] tanks;
+    private Shell[] shells;
+    private Bonus[] bonuses;
 
     public World(int tick, double width, double height, Player[] players,
                  Obstacle[] obstacles, Tank[] tanks, Shell[] shells, Bonus[] bonuses) {
+        set(
+                tick, width, height, Arrays.copyOf(players, players.length),
+                Arrays.copyOf(obstacles, obstacles.length), Arrays.copyOf(tanks, tanks.length),
+                Arrays.copyOf(shells, shells.length), Arrays.copyOf(bonuses, bonuses.length)
+        );
+    }
+
+    /**
+     * Переиспользуемые массивы принадлежат {@link ModelPool} и не копируются.
+     */
+    void set(int tick, double width, double height, Player[] players,
+             Obstacle[] obstacles, Tank[] tanks, Shell[] shells, Bonus[] bonuses) {
         this.tick = tick;
         this.width = width;
         this.height = height;
-        this.players = Arrays.copyOf(players, players.length);
-        this.obstacles = Arrays.copyOf(obstacles, obstacles.length);
-        this.tanks = Arrays.copyOf(tanks, tanks.length);
-        this.shells = Arrays.copyOf(shells, shells.length);
-        this.bonuses = Arrays.copyOf(bonuses, bonuses.length);
+        this.players = players;
+        this.obstacles = obstacles;
+        this.tanks = tanks;
+        this.shells = shells;
+        this.bonuses = bonuses;
     }
 
     /**
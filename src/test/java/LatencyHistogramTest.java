@@ -0,0 +1,101 @@
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class LatencyHistogramTest {
+    @Test
+    public void emptyHistogram() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        assertEquals(0L, histogram.getCount());
+        assertEquals(0L, histogram.getMax());
+        assertEquals(0.0D, histogram.getMean(), 0.0D);
+        assertEquals(0L, histogram.getValueAtPercentile(99.0D));
+    }
+
+    @Test
+    public void countsSmallValuesExactly() {
+        LatencyHistogram histogram = new LatencyHistogram();
+
+        for (long value = 1; value <= 100; ++value) {
+            histogram.record(value);
+        }
+
+        assertEquals(100L, histogram.getCount());
+        assertEquals(100L, histogram.getMax());
+        assertEquals(50.5D, histogram.getMean(), 0.0D);
+        assertEquals(1L, histogram.getValueAtPercentile(0.0D));
+        assertEquals(50L, histogram.getValueAtPercentile(50.0D));
+        assertEquals(63L, histogram.getValueAtPercentile(63.0D));
+        // 98 and 99 share a bucket above 64
+        assertEquals(99L, histogram.getValueAtPercentile(98.0D));
+        assertEquals(100L, histogram.getValueAtPercentile(100.0D));
+    }
+
+    @Test
+    public void recordsNegativeValuesAsZero() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(-5L);
+
+        assertEquals(1L, histogram.getCount());
+        assertEquals(0L, histogram.getMax());
+        assertEquals(0L, histogram.getValueAtPercentile(100.0D));
+    }
+
+    @Test
+    public void neverReportsAboveMax() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(1000L);
+
+        assertEquals(1000L, histogram.getValueAtPercentile(100.0D));
+    }
+
+    /**
+     * Walks the buckets upwards from 0: every value lies in a bucket whose highest value is at most 1/32 above it,
+     * and the value after the highest one starts the next bucket.
+     */
+    @Test
+    public void bucketBounds() {
+        long lowest = 0;
+
+        while (lowest >= 0) {
+            long highest = getBucketHighestValue(lowest);
+
+            assertTrue("Bucket of " + lowest + " ends at " + highest + '.', highest >= lowest);
+            assertTrue("Bucket of " + lowest + " ends at " + highest + '.', highest - lowest <= lowest / 32);
+            assertEquals(highest, getBucketHighestValue(highest));
+            if (highest > lowest) {
+                assertEquals(highest, getBucketHighestValue(lowest + (highest - lowest) / 2));
+            }
+
+            if (lowest < 64) {
+                assertEquals(lowest, highest);
+            }
+
+            lowest = highest + 1;
+        }
+    }
+
+    @Test
+    public void powerOfTwoBoundaries() {
+        for (int bits = 7; bits < 63; ++bits) {
+            long power = 1L << bits;
+
+            assertEquals(power - 1, getBucketHighestValue(power - 1));
+            assertEquals(power + (power >>> 5) - 1, getBucketHighestValue(power));
+        }
+        assertEquals(Long.MAX_VALUE, getBucketHighestValue(Long.MAX_VALUE));
+    }
+
+    /**
+     * @return the highest value of the bucket of the value, read back through the median of the value and a larger
+     * one, so that the maximum doesn't clamp it
+     */
+    private static long getBucketHighestValue(long value) {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(value);
+        histogram.record(Long.MAX_VALUE);
+        return histogram.getValueAtPercentile(50.0D);
+    }
+}
@@ -0,0 +1,86 @@
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class LineOfSightTest {
+    private static final double DIAGONAL = Math.sqrt(0.5D);
+
+    @Test
+    public void axisAlignedBox() {
+        LineOfSight lineOfSight = new LineOfSight();
+        lineOfSight.add(0.0D, 0.0D, 1.0D, 0.0D, 10.0D, 5.0D);
+
+        assertTrue(lineOfSight.isBlocked(-20.0D, 0.0D, 20.0D, 0.0D));
+        assertTrue(lineOfSight.isBlocked(0.0D, -20.0D, 0.0D, 20.0D));
+        assertFalse(lineOfSight.isBlocked(-20.0D, 6.0D, 20.0D, 6.0D));
+        assertFalse(lineOfSight.isBlocked(-30.0D, 0.0D, -11.0D, 0.0D));
+    }
+
+    @Test
+    public void touchingBlocks() {
+        LineOfSight lineOfSight = new LineOfSight();
+        lineOfSight.add(0.0D, 0.0D, 1.0D, 0.0D, 10.0D, 5.0D);
+
+        assertTrue(lineOfSight.isBlocked(-30.0D, 0.0D, -10.0D, 0.0D));
+        assertTrue(lineOfSight.isBlocked(-20.0D, 5.0D, 20.0D, 5.0D));
+    }
+
+    @Test
+    public void segmentInsideBlocks() {
+        LineOfSight lineOfSight = new LineOfSight();
+        lineOfSight.add(0.0D, 0.0D, 1.0D, 0.0D, 10.0D, 5.0D);
+
+        assertTrue(lineOfSight.isBlocked(-1.0D, -1.0D, 1.0D, 1.0D));
+        assertTrue(lineOfSight.isBlocked(0.0D, 0.0D, 0.0D, 0.0D));
+        assertFalse(lineOfSight.isBlocked(11.0D, 0.0D, 11.0D, 0.0D));
+    }
+
+    /**
+     * Both segments overlap the box along its own axes; only the axis across the segment tells them apart.
+     */
+    @Test
+    public void diagonalPastCorner() {
+        LineOfSight lineOfSight = new LineOfSight();
+        lineOfSight.add(0.0D, 0.0D, 1.0D, 0.0D, 10.0D, 5.0D);
+
+        assertFalse(lineOfSight.isBlocked(8.0D, 12.0D, 16.0D, 4.0D));
+        assertTrue(lineOfSight.isBlocked(6.0D, 8.0D, 14.0D, 2.0D));
+    }
+
+    /**
+     * A thin bar along the diagonal blocks a segment that the same bar lying along the x axis would miss.
+     */
+    @Test
+    public void rotatedBox() {
+        LineOfSight rotated = new LineOfSight();
+        rotated.add(100.0D, 100.0D, DIAGONAL, DIAGONAL, 10.0D, 1.0D);
+        LineOfSight unrotated = new LineOfSight();
+        unrotated.add(100.0D, 100.0D, 1.0D, 0.0D, 10.0D, 1.0D);
+
+        assertTrue(rotated.isBlocked(98.0D, 106.0D, 110.0D, 106.0D));
+        assertFalse(unrotated.isBlocked(98.0D, 106.0D, 110.0D, 106.0D));
+        assertFalse(rotated.isBlocked(80.0D, 105.0D, 90.0D, 105.0D));
+        assertTrue(rotated.isBlocked(90.0D, 100.0D, 110.0D, 100.0D));
+    }
+
+    @Test
+    public void anyBoxBlocksAndClearForgetsThem() {
+        LineOfSight lineOfSight = new LineOfSight();
+
+        for (int boxIndex = 0; boxIndex < 40; ++boxIndex) {
+            lineOfSight.add(50.0D * boxIndex, 100.0D, 1.0D, 0.0D, 5.0D, 5.0D);
+        }
+
+        assertEquals(40, lineOfSight.getCount());
+        assertTrue(lineOfSight.isBlocked(1945.0D, 0.0D, 1955.0D, 200.0D));
+        assertFalse(lineOfSight.isBlocked(0.0D, 0.0D, 2000.0D, 0.0D));
+        assertFalse(lineOfSight.isBlocked(20.0D, 0.0D, 30.0D, 200.0D));
+
+        lineOfSight.clear();
+
+        assertEquals(0, lineOfSight.getCount());
+        assertFalse(lineOfSight.isBlocked(1945.0D, 0.0D, 1955.0D, 200.0D));
+    }
+}
@@ -0,0 +1,86 @@
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+
+public class LongSlotMapTest {
+    @Test
+    public void putReplacesAndRemoveForgets() {
+        LongSlotMap map = new LongSlotMap();
+
+        assertEquals(LongSlotMap.ABSENT, map.get(42L));
+        assertEquals(LongSlotMap.ABSENT, map.put(42L, 1));
+        assertEquals(1, map.put(42L, 2));
+        assertEquals(2, map.get(42L));
+        assertEquals(1, map.size());
+
+        assertEquals(2, map.remove(42L));
+        assertEquals(LongSlotMap.ABSENT, map.remove(42L));
+        assertEquals(LongSlotMap.ABSENT, map.get(42L));
+        assertEquals(0, map.size());
+    }
+
+    @Test
+    public void growsPastInitialCapacity() {
+        LongSlotMap map = new LongSlotMap();
+
+        for (int slot = 0; slot < 1000; ++slot) {
+            map.put(slot * 7919L, slot);
+        }
+
+        assertEquals(1000, map.size());
+        for (int slot = 0; slot < 1000; ++slot) {
+            assertEquals(slot, map.get(slot * 7919L));
+        }
+    }
+
+    @Test
+    public void clearForgetsEverything() {
+        LongSlotMap map = new LongSlotMap();
+        map.put(1L, 1);
+        map.put(2L, 2);
+
+        map.clear();
+
+        assertEquals(0, map.size());
+        assertEquals(LongSlotMap.ABSENT, map.get(1L));
+        assertEquals(LongSlotMap.ABSENT, map.get(2L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeSlot() {
+        new LongSlotMap().put(1L, -1);
+    }
+
+    /**
+     * Twelve keys share a table of at most 32 buckets, so the random puts and removes keep building probe runs
+     * whose entries a removal has to shift back.
+     */
+    @Test
+    public void matchesHashMapUnderRandomRemovals() {
+        LongSlotMap map = new LongSlotMap();
+        Map<Long, Integer> expected = new HashMap<Long, Integer>();
+        Random random = new Random(20121031L);
+
+        for (int step = 0; step < 100000; ++step) {
+            long key = random.nextInt(12);
+            if (random.nextBoolean()) {
+                int slot = random.nextInt(1000);
+                Integer oldSlot = expected.put(key, slot);
+                assertEquals(oldSlot == null ? LongSlotMap.ABSENT : oldSlot, map.put(key, slot));
+            } else {
+                Integer oldSlot = expected.remove(key);
+                assertEquals(oldSlot == null ? LongSlotMap.ABSENT : oldSlot, map.remove(key));
+            }
+
+            assertEquals(expected.size(), map.size());
+            for (long probe = 0; probe < 12; ++probe) {
+                Integer slot = expected.get(probe);
+                assertEquals(slot == null ? LongSlotMap.ABSENT : slot, map.get(probe));
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+import model.Bonus;
+import model.Move;
+import model.Obstacle;
+import model.Player;
+import model.Shell;
+import model.ShellType;
+import model.Tank;
+import model.TankType;
+import model.World;
+import org.junit.Test;
+
+import static java.lang.StrictMath.PI;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class PhysicsSimulatorTest {
+    private static final double WIDTH = 1280.0D;
+    private static final double HEIGHT = 800.0D;
+
+    /**
+     * Loads every tick of synthetic games, drives the tanks of the strategy the way the game is driven and compares
+     * the next tick. The bots' controls aren't known to the simulator, so only the strategy's tanks are compared.
+     */
+    @Test
+    public void followsSyntheticGame() {
+        PhysicsSimulator simulator = new PhysicsSimulator();
+
+        for (String scenario : SyntheticGame.SCENARIOS) {
+            SyntheticGame game = SyntheticGame.create(scenario, 1000, 20121031L);
+            game.setPlayerTankTypes(new TankType[]{TankType.MEDIUM, TankType.HEAVY, TankType.TANK_DESTROYER});
+
+            while (!game.isOver()) {
+                int tick = game.getWorld().getTick();
+                Tank[] tanks = game.getWorld().getTanks();
+                Move[] moves = newMoves(tick, game.getTeamSize());
+
+                simulator.load(game.getWorld());
+                for (int tankIndex = 0; tankIndex < tanks.length; ++tankIndex) {
+                    if (tanks[tankIndex].isTeammate()) {
+                        Move move = moves[tanks[tankIndex].getTeammateIndex()];
+                        simulator.setControls(
+                                tankIndex, move.getLeftTrackPower(), move.getRightTrackPower(), move.getTurretTurn()
+                        );
+                    }
+                }
+
+                simulator.step();
+                game.step(moves);
+
+                Tank[] nextTanks = game.getWorld().getTanks();
+                for (int tankIndex = 0; tankIndex < tanks.length; ++tankIndex) {
+                    Tank tank = tanks[tankIndex];
+                    if (tank.isTeammate() && BaseStrategyImpl.isAlive(tank)) {
+                        String message = scenario + ", tick " + tick + ", tank " + tankIndex + '.';
+                        Tank next = nextTanks[tankIndex];
+                        assertEquals(message, next.getX(), simulator.getTankX(tankIndex), 0.0D);
+                        assertEquals(message, next.getY(), simulator.getTankY(tankIndex), 0.0D);
+                        assertEquals(message, next.getSpeedX(), simulator.getTankSpeedX(tankIndex), 0.0D);
+                        assertEquals(message, next.getSpeedY(), simulator.getTankSpeedY(tankIndex), 0.0D);
+                        assertEquals(message, next.getAngle(), simulator.getTankAngle(tankIndex), 0.0D);
+                        assertEquals(
+                                message, next.getAngularSpeed(), simulator.getTankAngularSpeed(tankIndex), 0.0D
+                        );
+                        assertEquals(
+                                message, next.getTurretRelativeAngle(), simulator.getTurretRelativeAngle(tankIndex),
+                                0.0D
+                        );
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * The shell crosses the end of the hull, farther from the center than half the tank's height.
+     */
+    @Test
+    public void hitsEndOfHull() {
+        PhysicsSimulator simulator = new PhysicsSimulator();
+        simulator.load(newWorld(0.0D, newShell(540.0D, 300.0D, 0.0D, 16.7D)));
+
+        simulator.step(20);
+
+        assertFalse(simulator.isShellFlying(0));
+        assertEquals(0, simulator.getShellHitTank(0));
+    }
+
+    @Test
+    public void missesTurnedHull() {
+        PhysicsSimulator simulator = new PhysicsSimulator();
+        simulator.load(newWorld(PI / 2.0D, newShell(540.0D, 300.0D, 0.0D, 16.7D)));
+
+        simulator.step(40);
+
+        assertFalse(simulator.isShellFlying(0));
+        assertEquals(-1, simulator.getShellHitTank(0));
+    }
+
+    /**
+     * A fast shell that jumps over the tank between two ticks still hits it.
+     */
+    @Test
+    public void hitsAlongPathOfTick() {
+        PhysicsSimulator simulator = new PhysicsSimulator();
+        simulator.load(newWorld(0.0D, newShell(420.0D, 400.0D, 160.0D, 0.0D)));
+
+        simulator.step();
+
+        assertEquals(580.0D, simulator.getShellX(0), 0.0D);
+        assertFalse(simulator.isShellFlying(0));
+        assertEquals(0, simulator.getShellHitTank(0));
+    }
+
+    @Test
+    public void shellFliesStraight() {
+        PhysicsSimulator simulator = new PhysicsSimulator();
+        simulator.load(newWorld(0.0D, newShell(100.0D, 100.0D, 10.0D, 5.0D)));
+
+        simulator.step(10);
+
+        assertTrue(simulator.isShellFlying(0));
+        assertEquals(200.0D, simulator.getShellX(0), 1.0E-9D);
+        assertEquals(150.0D, simulator.getShellY(0), 1.0E-9D);
+        assertEquals(10, simulator.getTick());
+    }
+
+    private static Move[] newMoves(int tick, int teamSize) {
+        Move[] moves = new Move[teamSize];
+
+        for (int moveIndex = 0; moveIndex < teamSize; ++moveIndex) {
+            Move move = new Move();
+            move.setLeftTrackPower(1.2D * Math.sin(0.05D * tick + moveIndex));
+            move.setRightTrackPower(1.2D * Math.cos(0.03D * tick - moveIndex));
+            move.setTurretTurn(0.1D * Math.sin(0.07D * tick));
+            moves[moveIndex] = move;
+        }
+
+        return moves;
+    }
+
+    /**
+     * @return a world with a medium tank at (500, 400), 90 long and 60 wide, and the shell
+     */
+    private static World newWorld(double tankAngle, Shell shell) {
+        Tank tank = new Tank(
+                1L, "Player", 0, 500.0D, 400.0D, 0.0D, 0.0D, tankAngle, 0.0D, 0.0D, 100, 200, 60, 0, 0, false,
+                TankType.MEDIUM
+        );
+        return new World(
+                0, WIDTH, HEIGHT, new Player[0], new Obstacle[0], new Tank[]{tank}, new Shell[]{shell}, new Bonus[0]
+        );
+    }
+
+    private static Shell newShell(double x, double y, double speedX, double speedY) {
+        return new Shell(
+                2L, "Other", 22.5D, 7.5D, x, y, speedX, speedY, Math.atan2(speedY, speedX), 0.0D, ShellType.REGULAR
+        );
+    }
+}
@@ -0,0 +1,256 @@
+import model.Bonus;
+import model.BonusType;
+import model.FireType;
+import model.Move;
+import model.Obstacle;
+import model.Player;
+import model.PlayerContext;
+import model.Shell;
+import model.ShellType;
+import model.Tank;
+import model.TankType;
+import model.Unit;
+import model.World;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+/**
+ * Encodes messages with {@link RemoteProcessServer} and decodes them with {@link RemoteProcessClient}, from memory
+ * and over a loopback connection with either transport.
+ */
+public class ProtocolRoundTripTest {
+    // more than the initial size of the player-name cache of the client
+    private static final int PLAYER_COUNT = 40;
+    private static final String TOKEN = "0123456789abcdef";
+
+    @Test
+    public void decodesPlayerContext() throws IOException {
+        assertDecodes(false);
+    }
+
+    @Test
+    public void decodesPlayerContextIntoRecycledModel() throws IOException {
+        assertDecodes(true);
+    }
+
+    @Test
+    public void reusesPlayerNamesAcrossTicks() throws IOException {
+        PlayerContext expected = newPlayerContext(1);
+        ByteBuffer message = encode(expected);
+        RemoteProcessClient client = new RemoteProcessClient(message.duplicate());
+
+        Player[] firstPlayers = client.readPlayerContext().getWorld().getPlayers();
+        client.setInput(message.duplicate());
+        Player[] secondPlayers = client.readPlayerContext().getWorld().getPlayers();
+
+        for (int playerIndex = 0; playerIndex < PLAYER_COUNT; ++playerIndex) {
+            assertEquals(expected.getWorld().getPlayers()[playerIndex].getName(), secondPlayers[playerIndex].getName());
+            assertSame(firstPlayers[playerIndex].getName(), secondPlayers[playerIndex].getName());
+        }
+    }
+
+    @Test
+    public void playsSessionOverStream() throws IOException {
+        assertSession(false);
+    }
+
+    @Test
+    public void playsSessionOverChannel() throws IOException {
+        assertSession(true);
+    }
+
+    private static void assertDecodes(boolean recycleModel) throws IOException {
+        RemoteProcessClient client = new RemoteProcessClient(ByteBuffer.allocate(0));
+        client.setRecycleModel(recycleModel);
+
+        for (int tick = 0; tick < 3; ++tick) {
+            PlayerContext expected = newPlayerContext(tick);
+            client.setInput(encode(expected));
+            assertPlayerContextEquals(expected, client.readPlayerContext());
+        }
+    }
+
+    private static void assertSession(boolean useChannel) throws IOException {
+        RemoteProcessServer server = new RemoteProcessServer(0);
+
+        try {
+            RemoteProcessClient client = new RemoteProcessClient("localhost", server.getPort(), useChannel);
+
+            try {
+                server.accept();
+
+                client.writeToken(TOKEN);
+                assertEquals(TOKEN, server.readToken());
+
+                server.writeTeamSize(2);
+                assertEquals(2, client.readTeamSize());
+
+                TankType[] tankTypes = {TankType.MEDIUM, TankType.HEAVY};
+                client.writeSelectedTanks(tankTypes);
+                assertArrayEquals(tankTypes, server.readSelectedTanks());
+
+                for (int tick = 0; tick < 3; ++tick) {
+                    PlayerContext expected = newPlayerContext(tick);
+                    server.writePlayerContext(expected.getTanks(), expected.getWorld());
+                    assertPlayerContextEquals(expected, client.readPlayerContext());
+
+                    Move[] moves = {newMove(tick, FireType.PREMIUM_PREFERRED), newMove(-tick, null)};
+                    client.writeMoves(moves);
+                    Move[] receivedMoves = server.readMoves();
+                    assertEquals(moves.length, receivedMoves.length);
+                    for (int moveIndex = 0; moveIndex < moves.length; ++moveIndex) {
+                        assertMoveEquals(moves[moveIndex], receivedMoves[moveIndex]);
+                    }
+                }
+
+                server.writeGameOver();
+                assertNull(client.readPlayerContext());
+            } finally {
+                client.close();
+            }
+        } finally {
+            server.close();
+        }
+    }
+
+    private static ByteBuffer encode(PlayerContext playerContext) {
+        ByteBuffer buffer = ByteBuffer.allocate(1 << 16).order(ByteOrder.LITTLE_ENDIAN);
+        RemoteProcessServer.writePlayerContext(buffer, playerContext.getTanks(), playerContext.getWorld());
+        buffer.flip();
+        return buffer;
+    }
+
+    private static PlayerContext newPlayerContext(int tick) {
+        Player[] players = new Player[PLAYER_COUNT];
+        Tank[] tanks = new Tank[PLAYER_COUNT];
+
+        for (int playerIndex = 0; playerIndex < PLAYER_COUNT; ++playerIndex) {
+            String name = "Player " + playerIndex;
+            players[playerIndex] = new Player(name, 10 * playerIndex + tick, playerIndex % 7 == 0);
+            tanks[playerIndex] = new Tank(
+                    100L + playerIndex, name, 0, 30.5D * playerIndex, 20.25D + tick, -1.5D, 0.75D,
+                    0.1D * playerIndex - 2.0D, -0.01D, 0.3D, 100 - playerIndex, 200 - tick, 60, tick, playerIndex % 3,
+                    playerIndex == 0, TankType.values()[playerIndex % TankType.values().length]
+            );
+        }
+
+        Obstacle[] obstacles = {new Obstacle(1L, 60.0D, 40.0D, 640.0D, 400.0D)};
+        Shell[] shells = {
+                new Shell(7L + tick, "Player 3", 22.5D, 7.5D, 300.0D, 200.0D, 16.7D, 0.0D, 0.0D, 0.0D, ShellType.REGULAR),
+                new Shell(8L + tick, "Player 21", 15.0D, 5.0D, 310.0D, 210.0D, -13.3D, 0.5D, 3.1D, 0.0D, ShellType.PREMIUM)
+        };
+        Bonus[] bonuses = new Bonus[BonusType.values().length];
+        for (int bonusIndex = 0; bonusIndex < bonuses.length; ++bonusIndex) {
+            bonuses[bonusIndex] = new Bonus(
+                    50L + bonusIndex, 30.0D, 30.0D, 100.0D * bonusIndex, 700.0D, BonusType.values()[bonusIndex]
+            );
+        }
+
+        World world = new World(tick, 1280.0D, 800.0D, players, obstacles, tanks, shells, bonuses);
+        return new PlayerContext(new Tank[]{tanks[0], tanks[1]}, world);
+    }
+
+    private static Move newMove(int seed, FireType fireType) {
+        Move move = new Move();
+        move.setLeftTrackPower(0.25D * seed);
+        move.setRightTrackPower(-1.0D);
+        move.setTurretTurn(Math.PI / (seed + 3));
+        move.setFireType(fireType);
+        return move;
+    }
+
+    private static void assertPlayerContextEquals(PlayerContext expected, PlayerContext actual) {
+        assertTanksEqual(expected.getTanks(), actual.getTanks());
+
+        World expectedWorld = expected.getWorld();
+        World actualWorld = actual.getWorld();
+        assertEquals(expectedWorld.getTick(), actualWorld.getTick());
+        assertEquals(expectedWorld.getWidth(), actualWorld.getWidth(), 0.0D);
+        assertEquals(expectedWorld.getHeight(), actualWorld.getHeight(), 0.0D);
+
+        Player[] expectedPlayers = expectedWorld.getPlayers();
+        Player[] actualPlayers = actualWorld.getPlayers();
+        assertEquals(expectedPlayers.length, actualPlayers.length);
+        for (int playerIndex = 0; playerIndex < expectedPlayers.length; ++playerIndex) {
+            assertEquals(expectedPlayers[playerIndex].getName(), actualPlayers[playerIndex].getName());
+            assertEquals(expectedPlayers[playerIndex].getScore(), actualPlayers[playerIndex].getScore());
+            assertEquals(
+                    expectedPlayers[playerIndex].isStrategyCrashed(), actualPlayers[playerIndex].isStrategyCrashed()
+            );
+        }
+
+        Obstacle[] expectedObstacles = expectedWorld.getObstacles();
+        Obstacle[] actualObstacles = actualWorld.getObstacles();
+        assertEquals(expectedObstacles.length, actualObstacles.length);
+        for (int obstacleIndex = 0; obstacleIndex < expectedObstacles.length; ++obstacleIndex) {
+            assertUnitEquals(expectedObstacles[obstacleIndex], actualObstacles[obstacleIndex]);
+        }
+
+        assertTanksEqual(expectedWorld.getTanks(), actualWorld.getTanks());
+
+        Shell[] expectedShells = expectedWorld.getShells();
+        Shell[] actualShells = actualWorld.getShells();
+        assertEquals(expectedShells.length, actualShells.length);
+        for (int shellIndex = 0; shellIndex < expectedShells.length; ++shellIndex) {
+            assertUnitEquals(expectedShells[shellIndex], actualShells[shellIndex]);
+            assertEquals(expectedShells[shellIndex].getPlayerName(), actualShells[shellIndex].getPlayerName());
+            assertEquals(expectedShells[shellIndex].getType(), actualShells[shellIndex].getType());
+        }
+
+        Bonus[] expectedBonuses = expectedWorld.getBonuses();
+        Bonus[] actualBonuses = actualWorld.getBonuses();
+        assertEquals(expectedBonuses.length, actualBonuses.length);
+        for (int bonusIndex = 0; bonusIndex < expectedBonuses.length; ++bonusIndex) {
+            assertUnitEquals(expectedBonuses[bonusIndex], actualBonuses[bonusIndex]);
+            assertEquals(expectedBonuses[bonusIndex].getType(), actualBonuses[bonusIndex].getType());
+        }
+    }
+
+    private static void assertTanksEqual(Tank[] expected, Tank[] actual) {
+        assertEquals(expected.length, actual.length);
+
+        for (int tankIndex = 0; tankIndex < expected.length; ++tankIndex) {
+            Tank expectedTank = expected[tankIndex];
+            Tank actualTank = actual[tankIndex];
+
+            assertUnitEquals(expectedTank, actualTank);
+            assertEquals(expectedTank.getPlayerName(), actualTank.getPlayerName());
+            assertEquals(expectedTank.getTeammateIndex(), actualTank.getTeammateIndex());
+            assertEquals(expectedTank.getTurretRelativeAngle(), actualTank.getTurretRelativeAngle(), 0.0D);
+            assertEquals(expectedTank.getCrewHealth(), actualTank.getCrewHealth());
+            assertEquals(expectedTank.getHullDurability(), actualTank.getHullDurability());
+            assertEquals(expectedTank.getReloadingTime(), actualTank.getReloadingTime());
+            assertEquals(expectedTank.getRemainingReloadingTime(), actualTank.getRemainingReloadingTime());
+            assertEquals(expectedTank.getPremiumShellCount(), actualTank.getPremiumShellCount());
+            assertEquals(expectedTank.isTeammate(), actualTank.isTeammate());
+            assertEquals(expectedTank.getType(), actualTank.getType());
+        }
+    }
+
+    private static void assertUnitEquals(Unit expected, Unit actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getWidth(), actual.getWidth(), 0.0D);
+        assertEquals(expected.getHeight(), actual.getHeight(), 0.0D);
+        assertEquals(expected.getX(), actual.getX(), 0.0D);
+        assertEquals(expected.getY(), actual.getY(), 0.0D);
+        assertEquals(expected.getSpeedX(), actual.getSpeedX(), 0.0D);
+        assertEquals(expected.getSpeedY(), actual.getSpeedY(), 0.0D);
+        assertEquals(expected.getAngle(), actual.getAngle(), 0.0D);
+        assertEquals(expected.getAngularSpeed(), actual.getAngularSpeed(), 0.0D);
+    }
+
+    private static void assertMoveEquals(Move expected, Move actual) {
+        assertEquals(expected.getLeftTrackPower(), actual.getLeftTrackPower(), 0.0D);
+        assertEquals(expected.getRightTrackPower(), actual.getRightTrackPower(), 0.0D);
+        assertEquals(expected.getTurretTurn(), actual.getTurretTurn(), 0.0D);
+        assertEquals(expected.getFireType(), actual.getFireType());
+    }
+}
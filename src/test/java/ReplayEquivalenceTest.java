@@ -0,0 +1,102 @@
+import org.junit.BeforeClass;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Records every synthetic scenario once through {@link Runner} with the default options and replays the recordings
+ * with the other options, which must not change a single move. The fast-math mode is left out: it may break ties
+ * differently and is not meant to reproduce the strict geometry.
+ */
+public class ReplayEquivalenceTest {
+    private static final int TICK_COUNT = 600;
+    private static final long SEED = 20121031L;
+    private static final String TOKEN = "0000000000000000";
+
+    // generous enough never to run out, so the staged decisions run to the end
+    private static final long TICK_BUDGET_NANOS = TimeUnit.SECONDS.toNanos(1L);
+
+    @ClassRule
+    public static final TemporaryFolder folder = new TemporaryFolder();
+
+    private static TickReplay[] replays;
+
+    @BeforeClass
+    public static void record() throws Exception {
+        replays = new TickReplay[SyntheticGame.SCENARIOS.length];
+
+        for (int scenarioIndex = 0; scenarioIndex < replays.length; ++scenarioIndex) {
+            String scenario = SyntheticGame.SCENARIOS[scenarioIndex];
+            String path = new File(folder.getRoot(), scenario + ".ticks").getPath();
+            record(SyntheticGame.create(scenario, TICK_COUNT, SEED), path);
+            replays[scenarioIndex] = new TickReplay(path);
+        }
+    }
+
+    @Test
+    public void replaysWithDefaults() throws IOException {
+        assertUnchanged(false, false, 0L);
+    }
+
+    @Test
+    public void replaysWithRecycledModel() throws IOException {
+        assertUnchanged(true, false, 0L);
+    }
+
+    @Test
+    public void replaysWithParallelStrategies() throws IOException {
+        assertUnchanged(false, true, 0L);
+    }
+
+    @Test
+    public void replaysWithTickBudget() throws IOException {
+        assertUnchanged(false, false, TICK_BUDGET_NANOS);
+    }
+
+    @Test
+    public void replaysWithAllOptions() throws IOException {
+        assertUnchanged(true, true, TICK_BUDGET_NANOS);
+    }
+
+    private static void assertUnchanged(boolean recycleModel, boolean parallel, long tickBudgetNanos)
+            throws IOException {
+        for (TickReplay replay : replays) {
+            assertTrue("Nothing recorded in " + replay.getPath() + '.', replay.getTickCount() > 0);
+            assertEquals(
+                    "Ticks with changed moves in " + replay.getPath() + '.',
+                    0, replay.replay(recycleModel, parallel, tickBudgetNanos)
+            );
+        }
+    }
+
+    private static void record(SyntheticGame game, final String path) throws Exception {
+        final RemoteProcessServer server = new RemoteProcessServer(0);
+        final Exception[] runnerFailure = new Exception[1];
+
+        Thread runnerThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    new Runner("localhost", server.getPort(), TOKEN, path).run();
+                } catch (Exception e) {
+                    runnerFailure[0] = e;
+                }
+            }
+        }, "Runner");
+        runnerThread.start();
+
+        new LocalGameServer(server, game).run();
+        runnerThread.join();
+
+        if (runnerFailure[0] != null) {
+            throw runnerFailure[0];
+        }
+    }
+}
@@ -0,0 +1,187 @@
+import model.Bonus;
+import model.BonusType;
+import model.Obstacle;
+import model.Player;
+import model.Shell;
+import model.Tank;
+import model.TankType;
+import model.Unit;
+import model.World;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static java.lang.StrictMath.PI;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Checks {@link SpatialGrid#traceRay} the way the strategy uses it: the units collected along a segment, filtered
+ * by the exact segment-vs-box test, must be exactly the units a scan over every indexed unit finds blocking.
+ */
+public class SpatialGridTest {
+    private static final double WIDTH = 1280.0D;
+    private static final double HEIGHT = 800.0D;
+    private static final double CELL_SIZE = 64.0D;
+
+    @Test
+    public void matchesBruteForceOnRandomSegments() {
+        Random random = new Random(20121031L);
+
+        for (int worldIndex = 0; worldIndex < 50; ++worldIndex) {
+            World world = newWorld(random);
+            WorldView view = new WorldView(world, new SpatialGrid());
+            List<Unit> units = getIndexedUnits(view);
+            SpatialGrid.Query query = new SpatialGrid.Query();
+
+            for (int segmentIndex = 0; segmentIndex < 200; ++segmentIndex) {
+                assertSameBlockingUnits(
+                        view, units, query, random.nextDouble() * WIDTH, random.nextDouble() * HEIGHT,
+                        random.nextDouble() * WIDTH, random.nextDouble() * HEIGHT
+                );
+            }
+        }
+    }
+
+    @Test
+    public void matchesBruteForceAlongCellBoundaries() {
+        Random random = new Random(20121101L);
+
+        for (int worldIndex = 0; worldIndex < 50; ++worldIndex) {
+            World world = newWorld(random);
+            WorldView view = new WorldView(world, new SpatialGrid());
+            List<Unit> units = getIndexedUnits(view);
+            SpatialGrid.Query query = new SpatialGrid.Query();
+
+            for (int line = 1; line * CELL_SIZE < HEIGHT; ++line) {
+                double y = line * CELL_SIZE;
+                assertSameBlockingUnits(view, units, query, 0.0D, y, WIDTH - 1.0D, y);
+                assertSameBlockingUnits(view, units, query, WIDTH - 1.0D, y, 0.0D, y);
+            }
+
+            for (int line = 1; line * CELL_SIZE < WIDTH; ++line) {
+                double x = line * CELL_SIZE;
+                assertSameBlockingUnits(view, units, query, x, 0.0D, x, HEIGHT - 1.0D);
+                assertSameBlockingUnits(view, units, query, x, HEIGHT - 1.0D, x, 0.0D);
+            }
+
+            // through the corners of the cells
+            assertSameBlockingUnits(view, units, query, CELL_SIZE, CELL_SIZE, 12.0D * CELL_SIZE, 12.0D * CELL_SIZE);
+            assertSameBlockingUnits(view, units, query, 19.0D * CELL_SIZE, CELL_SIZE, 8.0D * CELL_SIZE, 12.0D * CELL_SIZE);
+            assertSameBlockingUnits(view, units, query, 3.0D * CELL_SIZE, 5.0D * CELL_SIZE, 3.0D * CELL_SIZE, 5.0D * CELL_SIZE);
+        }
+    }
+
+    @Test
+    public void collectsObstacleSpanningManyCells() {
+        Obstacle wall = new Obstacle(1L, 40.0D, 600.0D, 640.0D, 400.0D);
+        World world = new World(
+                0, WIDTH, HEIGHT, new Player[0], new Obstacle[]{wall}, new Tank[0], new Shell[0], new Bonus[0]
+        );
+        WorldView view = new WorldView(world, new SpatialGrid());
+        SpatialGrid.Query query = new SpatialGrid.Query();
+
+        for (double y = 110.0D; y < 700.0D; y += 16.0D) {
+            view.getGrid().traceRay(100.0D, y, 1200.0D, y, 1100.0D + view.getGrid().getMaxRadius(), query);
+
+            assertEquals(1, query.getCount());
+            assertTrue(query.getUnit(0) == wall);
+        }
+    }
+
+    private static void assertSameBlockingUnits(
+            WorldView view, List<Unit> units, SpatialGrid.Query query, double x1, double y1, double x2, double y2) {
+        Set<Unit> expected = new HashSet<Unit>();
+        for (Unit unit : units) {
+            if (isBlocked(unit, x1, y1, x2, y2)) {
+                expected.add(unit);
+            }
+        }
+
+        SpatialGrid grid = view.getGrid();
+        grid.traceRay(x1, y1, x2, y2, Math.hypot(x2 - x1, y2 - y1) + grid.getMaxRadius(), query);
+
+        Set<Unit> collected = new HashSet<Unit>();
+        Set<Unit> actual = new HashSet<Unit>();
+        for (int index = 0; index < query.getCount(); ++index) {
+            Unit unit = query.getUnit(index);
+            assertTrue("Unit " + unit.getId() + " collected twice.", collected.add(unit));
+            if (isBlocked(unit, x1, y1, x2, y2)) {
+                actual.add(unit);
+            }
+        }
+
+        assertEquals(String.format("Segment (%s, %s) - (%s, %s).", x1, y1, x2, y2), expected, actual);
+    }
+
+    private static boolean isBlocked(Unit unit, double x1, double y1, double x2, double y2) {
+        LineOfSight lineOfSight = new LineOfSight();
+        lineOfSight.add(unit);
+        return lineOfSight.isBlocked(x1, y1, x2, y2);
+    }
+
+    /**
+     * @return the units the grid indexes: obstacles, dead tanks, bonuses and the alive team
+     */
+    private static List<Unit> getIndexedUnits(WorldView view) {
+        World world = view.getWorld();
+        List<Unit> units = new ArrayList<Unit>();
+
+        for (Obstacle obstacle : world.getObstacles()) {
+            units.add(obstacle);
+        }
+        units.addAll(view.getDeadTanks());
+        for (Bonus bonus : world.getBonuses()) {
+            units.add(bonus);
+        }
+        units.addAll(view.getAliveTeam());
+        return units;
+    }
+
+    /**
+     * Obstacles snapped to half cells, some of them long walls across several cells, and tanks and bonuses
+     * anywhere.
+     */
+    private static World newWorld(Random random) {
+        long id = 0;
+
+        Obstacle[] obstacles = new Obstacle[random.nextInt(6)];
+        for (int obstacleIndex = 0; obstacleIndex < obstacles.length; ++obstacleIndex) {
+            boolean wall = random.nextBoolean();
+            double width = wall ? 32.0D * (2 + random.nextInt(12)) : 32.0D + random.nextInt(64);
+            double height = wall ? 32.0D : 32.0D + random.nextInt(64);
+            if (random.nextBoolean()) {
+                double swap = width;
+                width = height;
+                height = swap;
+            }
+            obstacles[obstacleIndex] = new Obstacle(
+                    ++id, width, height, 32.0D * (1 + random.nextInt(38)), 32.0D * (1 + random.nextInt(24))
+            );
+        }
+
+        Tank[] tanks = new Tank[random.nextInt(10)];
+        for (int tankIndex = 0; tankIndex < tanks.length; ++tankIndex) {
+            boolean alive = random.nextInt(3) != 0;
+            tanks[tankIndex] = new Tank(
+                    ++id, "Player " + tankIndex % 4, 0, random.nextDouble() * WIDTH, random.nextDouble() * HEIGHT,
+                    0.0D, 0.0D, (random.nextDouble() * 2.0D - 1.0D) * PI, 0.0D, 0.0D, alive ? 100 : 0, 200, 60, 0, 0,
+                    random.nextBoolean(), TankType.values()[random.nextInt(TankType.values().length)]
+            );
+        }
+
+        Bonus[] bonuses = new Bonus[random.nextInt(4)];
+        for (int bonusIndex = 0; bonusIndex < bonuses.length; ++bonusIndex) {
+            bonuses[bonusIndex] = new Bonus(
+                    ++id, 30.0D, 30.0D, random.nextDouble() * WIDTH, random.nextDouble() * HEIGHT,
+                    BonusType.values()[random.nextInt(BonusType.values().length)]
+            );
+        }
+
+        return new World(0, WIDTH, HEIGHT, new Player[0], obstacles, tanks, new Shell[0], bonuses);
+    }
+}
@@ -0,0 +1,97 @@
+import model.Move;
+import model.Tank;
+import model.TankType;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * A tick that doesn't run out of budget must get the moves of a tick without a budget. Two teams of strategies, one
+ * with a budget that never runs out and one without, answer every tick of the same synthetic games, and the game
+ * goes on with the moves of the unlimited team.
+ */
+public class TickBudgetTest {
+    private static final int TICK_COUNT = 3000;
+    // generous enough never to run out
+    private static final long TICK_BUDGET_NANOS = TimeUnit.SECONDS.toNanos(10L);
+
+    @Test
+    public void unlimitedBudgetNeverRunsOut() {
+        TickBudget budget = new TickBudget(0L);
+        budget.start();
+
+        assertFalse(budget.isExhausted());
+    }
+
+    @Test
+    public void exhaustedBudget() throws InterruptedException {
+        TickBudget budget = new TickBudget(1L);
+        budget.start();
+        Thread.sleep(1L);
+
+        assertTrue(budget.isExhausted());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsNegativeBudget() {
+        new TickBudget(-1L);
+    }
+
+    /**
+     * The seeds include games where a tank in the two-on-one state comes under fire, which its navigation leaves
+     * undodged.
+     */
+    @Test
+    public void budgetThatDoesNotRunOutKeepsMoves() {
+        for (String scenario : SyntheticGame.SCENARIOS) {
+            for (long seed : new long[]{7L, 13L, 14L, 24L}) {
+                assertEquals(scenario + " with seed " + seed + '.', 0, countChangedTicks(scenario, seed));
+            }
+        }
+    }
+
+    private static int countChangedTicks(String scenario, long seed) {
+        SyntheticGame game = SyntheticGame.create(scenario, TICK_COUNT, seed);
+        int teamSize = game.getTeamSize();
+        Strategy[] strategies = new Strategy[teamSize];
+        Strategy[] budgetedStrategies = new Strategy[teamSize];
+        TankType[] tankTypes = new TankType[teamSize];
+
+        for (int strategyIndex = 0; strategyIndex < teamSize; ++strategyIndex) {
+            strategies[strategyIndex] = new MyStrategy();
+            tankTypes[strategyIndex] = strategies[strategyIndex].selectTank(strategyIndex, teamSize);
+            budgetedStrategies[strategyIndex] = new MyStrategy();
+            budgetedStrategies[strategyIndex].selectTank(strategyIndex, teamSize);
+        }
+        game.setPlayerTankTypes(tankTypes);
+
+        StrategyExecutor executor = new StrategyExecutor(strategies, false);
+        StrategyExecutor budgetedExecutor = new StrategyExecutor(budgetedStrategies, false, TICK_BUDGET_NANOS);
+        Move[] moves = new Move[teamSize];
+        Move[] budgetedMoves = new Move[teamSize];
+        int changedTickCount = 0;
+
+        try {
+            while (!game.isOver()) {
+                Tank[] playerTanks = game.getPlayerTanks();
+
+                executor.move(playerTanks, game.getWorld(), moves);
+                budgetedExecutor.move(playerTanks, game.getWorld(), budgetedMoves);
+                if (!TickReplay.equals(budgetedMoves, moves)) {
+                    ++changedTickCount;
+                }
+
+                game.step(moves);
+            }
+        } finally {
+            executor.close();
+            budgetedExecutor.close();
+        }
+
+        return changedTickCount;
+    }
+}
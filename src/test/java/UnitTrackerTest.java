@@ -0,0 +1,150 @@
+import model.Bonus;
+import model.BonusType;
+import model.Obstacle;
+import model.Player;
+import model.Shell;
+import model.ShellType;
+import model.Tank;
+import model.TankType;
+import model.World;
+import org.junit.Test;
+
+import static java.lang.StrictMath.PI;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class UnitTrackerTest {
+    @Test
+    public void wrapsAroundHistory() {
+        UnitTracker tracker = new UnitTracker();
+
+        for (int tick = 0; tick < 3 * UnitTracker.HISTORY_SIZE + 3; ++tick) {
+            tracker.update(newWorld(tick, newTank(1L, tick, 0.01D * tick)));
+
+            UnitTracker.History tanks = tracker.getTanks();
+            int slot = tanks.getSlot(1L);
+            assertEquals(Math.min(tick + 1, UnitTracker.HISTORY_SIZE), tanks.getSampleCount(slot));
+            for (int age = 0; age < tanks.getSampleCount(slot); ++age) {
+                assertEquals(tick - age, tanks.getTick(slot, age));
+                assertEquals(tick - age, tanks.getX(slot, age), 0.0D);
+                assertEquals(100 - (tick - age), tanks.getCrewHealth(slot, age));
+                assertEquals(0.01D * (tick - age), tanks.getTurretRelativeAngle(slot, age), 0.0D);
+            }
+            assertNoSample(tanks, slot, tanks.getSampleCount(slot));
+        }
+    }
+
+    /**
+     * A unit that appears in the slot of a vanished one, or a vanished unit that comes back, starts with an empty
+     * history.
+     */
+    @Test
+    public void reusesSlotWithoutHistory() {
+        UnitTracker tracker = new UnitTracker();
+        for (int tick = 0; tick < 10; ++tick) {
+            tracker.update(newWorld(tick, newTank(1L, tick, 0.1D * tick)));
+        }
+        UnitTracker.History tanks = tracker.getTanks();
+        int slot = tanks.getSlot(1L);
+
+        tracker.update(newWorld(10));
+        assertEquals(LongSlotMap.ABSENT, tanks.getSlot(1L));
+        assertEquals(0, tanks.size());
+
+        tracker.update(newWorld(11, newTank(2L, 500.0D, -1.0D)));
+        assertEquals(slot, tanks.getSlot(2L));
+        assertSingleSample(tanks, slot, 11, 500.0D);
+
+        tracker.update(newWorld(12, newTank(1L, 700.0D, 2.0D)));
+        assertEquals(LongSlotMap.ABSENT, tanks.getSlot(2L));
+        assertSingleSample(tanks, tanks.getSlot(1L), 12, 700.0D);
+        assertEquals(1, tanks.size());
+    }
+
+    @Test
+    public void tracksShellsAndBonusesApart() {
+        UnitTracker tracker = new UnitTracker();
+        Shell shell = new Shell(5L, "Other", 22.5D, 7.5D, 10.0D, 20.0D, 16.7D, 0.0D, 0.0D, 0.0D, ShellType.REGULAR);
+        Bonus bonus = new Bonus(6L, 30.0D, 30.0D, 300.0D, 400.0D, BonusType.MEDIKIT);
+
+        tracker.update(new World(
+                0, 1280.0D, 800.0D, new Player[0], new Obstacle[0], new Tank[0], new Shell[]{shell},
+                new Bonus[]{bonus}
+        ));
+        tracker.update(newWorld(1));
+
+        assertEquals(0, tracker.getShells().size());
+        assertEquals(0, tracker.getBonuses().size());
+
+        tracker.update(new World(
+                2, 1280.0D, 800.0D, new Player[0], new Obstacle[0], new Tank[0], new Shell[0], new Bonus[]{bonus}
+        ));
+        assertSingleSample(tracker.getBonuses(), tracker.getBonuses().getSlot(6L), 2, 300.0D);
+    }
+
+    @Test
+    public void sameTickReplacesLastSample() {
+        UnitTracker tracker = new UnitTracker();
+
+        tracker.update(newWorld(5, newTank(1L, 1.0D, 0.0D)));
+        tracker.update(newWorld(6, newTank(1L, 2.0D, 0.0D)));
+        tracker.update(newWorld(6, newTank(1L, 3.0D, 0.0D)));
+
+        UnitTracker.History tanks = tracker.getTanks();
+        int slot = tanks.getSlot(1L);
+        assertEquals(2, tanks.getSampleCount(slot));
+        assertEquals(6, tanks.getTick(slot, 0));
+        assertEquals(3.0D, tanks.getX(slot, 0), 0.0D);
+        assertEquals(5, tanks.getTick(slot, 1));
+        assertEquals(1.0D, tanks.getX(slot, 1), 0.0D);
+        assertEquals(3.0D, tanks.getAccelerationX(slot), 0.0D);
+    }
+
+    @Test
+    public void turretSlewWrapsAcrossPi() {
+        assertTurretSlew(3.1D, -3.1D, 1, 2.0D * PI - 6.2D);
+        assertTurretSlew(-3.1D, 3.1D, 1, 6.2D - 2.0D * PI);
+        assertTurretSlew(3.1D, -3.1D, 2, (2.0D * PI - 6.2D) / 2.0D);
+        assertTurretSlew(0.2D, -0.3D, 1, -0.5D);
+    }
+
+    private static void assertTurretSlew(double fromAngle, double toAngle, int tickCount, double expectedSlew) {
+        UnitTracker tracker = new UnitTracker();
+        tracker.update(newWorld(0, newTank(1L, 0.0D, fromAngle)));
+        tracker.update(newWorld(tickCount, newTank(1L, 0.0D, toAngle)));
+
+        assertEquals(expectedSlew, tracker.getTanks().getTurretSlew(tracker.getTanks().getSlot(1L)), 1.0E-12D);
+    }
+
+    private static void assertSingleSample(UnitTracker.History history, int slot, int tick, double x) {
+        assertEquals(1, history.getSampleCount(slot));
+        assertEquals(tick, history.getTick(slot, 0));
+        assertEquals(x, history.getX(slot, 0), 0.0D);
+        assertEquals(0.0D, history.getAccelerationX(slot), 0.0D);
+        assertEquals(0.0D, history.getAccelerationY(slot), 0.0D);
+        assertNoSample(history, slot, 1);
+    }
+
+    private static void assertNoSample(UnitTracker.History history, int slot, int age) {
+        try {
+            history.getX(slot, age);
+            fail("Sample of age " + age + " in slot " + slot + '.');
+        } catch (IndexOutOfBoundsException ignored) {
+            // expected
+        }
+    }
+
+    /**
+     * @return a tank whose speed and crew health follow its x, so that samples of different ticks differ
+     */
+    private static Tank newTank(long id, double x, double turretRelativeAngle) {
+        return new Tank(
+                id, "Player", 0, x, 400.0D, 1.5D * x, 0.0D, 0.0D, 0.0D, turretRelativeAngle, 100 - (int) x, 200, 60,
+                0, 0, false, TankType.MEDIUM
+        );
+    }
+
+    private static World newWorld(int tick, Tank... tanks) {
+        return new World(tick, 1280.0D, 800.0D, new Player[0], new Obstacle[0], tanks, new Shell[0], new Bonus[0]);
+    }
+}
@@ -0,0 +1,101 @@
+package model;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class FastMathTest {
+    @Test
+    public void atan2AroundCircle() {
+        for (int step = 0; step < 1000000; ++step) {
+            double angle = -StrictMath.PI + 2.0D * StrictMath.PI * step / 1000000;
+            double radius = 1.0D + step % 1000;
+            assertAtan2(radius * StrictMath.sin(angle), radius * StrictMath.cos(angle));
+        }
+    }
+
+    @Test
+    public void atan2OnAxesAndZeros() {
+        double[] values = {0.0D, -0.0D, 1.0D, -1.0D, 3.5D, -3.5D, Double.MIN_VALUE, -Double.MIN_VALUE,
+                Double.MAX_VALUE, -Double.MAX_VALUE};
+
+        for (double y : values) {
+            for (double x : values) {
+                assertAtan2(y, x);
+            }
+        }
+    }
+
+    @Test
+    public void atan2KeepsSignOfZeroAngles() {
+        assertEquals(Double.doubleToLongBits(0.0D), Double.doubleToLongBits(FastMath.atan2(0.0D, 2.0D)));
+        assertEquals(Double.doubleToLongBits(-0.0D), Double.doubleToLongBits(FastMath.atan2(-0.0D, 2.0D)));
+        assertEquals(StrictMath.PI, FastMath.atan2(0.0D, -2.0D), 0.0D);
+        assertEquals(-StrictMath.PI, FastMath.atan2(-0.0D, -2.0D), 0.0D);
+    }
+
+    /**
+     * Zeros on both axes, infinities and NaN are left to {@link StrictMath#atan2} and must match it exactly.
+     */
+    @Test
+    public void atan2OfSpecialValues() {
+        double[] values = {Double.NaN, Double.POSITIVE_INFINITY, Double.NEGATIVE_INFINITY, 0.0D, -0.0D, 1.0D, -1.0D};
+
+        for (double y : values) {
+            for (double x : values) {
+                double sum = Math.abs(x) + Math.abs(y);
+                if (sum == 0.0D || Double.isNaN(sum) || Double.isInfinite(sum)) {
+                    assertEquals(y + " / " + x, StrictMath.atan2(y, x), FastMath.atan2(y, x), 0.0D);
+                } else {
+                    assertAtan2(y, x);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ratios from far below to far above 1 in every quadrant, including near the ends of the reduced interval and
+     * the diagonal.
+     */
+    @Test
+    public void atan2OfExtremeRatios() {
+        Random random = new Random(20121031L);
+        double tanTwelfthPi = 2.0D - StrictMath.sqrt(3.0D);
+
+        for (int step = 0; step < 200000; ++step) {
+            double y = (random.nextBoolean() ? 1.0D : -1.0D) * (1.0D + random.nextDouble())
+                    * StrictMath.scalb(1.0D, random.nextInt(2000) - 1000);
+            double x = (random.nextBoolean() ? 1.0D : -1.0D) * (1.0D + random.nextDouble())
+                    * StrictMath.scalb(1.0D, random.nextInt(2000) - 1000);
+            assertAtan2(y, x);
+        }
+
+        for (double ratio : new double[]{tanTwelfthPi, Math.nextUp(tanTwelfthPi), Math.nextDown(tanTwelfthPi),
+                1.0D, Math.nextUp(1.0D), Math.nextDown(1.0D), 1.0E-300D, 1.0E300D}) {
+            assertAtan2(ratio, 1.0D);
+            assertAtan2(-ratio, 1.0D);
+            assertAtan2(ratio, -1.0D);
+            assertAtan2(-ratio, -1.0D);
+            assertAtan2(1.0D, ratio);
+            assertAtan2(-1.0D, -ratio);
+        }
+    }
+
+    @Test
+    public void normalizeAngle() {
+        for (int turn = -5; turn <= 5; ++turn) {
+            for (double angle = -3.0D; angle <= 3.0D; angle += 0.25D) {
+                double normalized = FastMath.normalizeAngle(angle + 2.0D * StrictMath.PI * turn);
+                assertEquals(angle, normalized, 1.0E-12D);
+            }
+        }
+    }
+
+    private static void assertAtan2(double y, double x) {
+        double error = Math.abs(FastMath.atan2(y, x) - StrictMath.atan2(y, x));
+        assertTrue(String.format("atan2(%s, %s) is off by %s.", y, x, error), error <= FastMath.MAX_ATAN2_ERROR);
+    }
+}
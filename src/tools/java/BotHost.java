@@ -0,0 +1,149 @@
+import model.FastMath;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Plays several games at once in one JVM, so self-play and ladder runs pay for JVM startup and JIT warm-up once.
+ * <p>
+ * Usage: {@code BotHost host port token [host port token]...}. Every triple starts a {@link Runner} session with
+ * its own connection and strategies; the {@code codetanks.*} properties apply to all of them, and a record path
+ * gets the session index appended. The process-wide {@code codetanks.fastMath} mode is set once before the
+ * sessions start. Sessions run on virtual threads when the JVM has them and on a thread per session otherwise.
+ * When every game is over the host prints the ticks of each session and the ticks per second of all sessions
+ * together, and exits with status 1 if any session failed.
+ */
+public final class BotHost {
+    private static final int SESSION_ARG_COUNT = 3;
+
+    private final String[] hosts;
+    private final int[] ports;
+    private final String[] tokens;
+
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length == 0 || args.length % SESSION_ARG_COUNT != 0) {
+            System.err.println("Usage: BotHost host port token [host port token]...");
+            System.exit(2);
+        }
+
+        if (!new BotHost(args).run()) {
+            System.exit(1);
+        }
+    }
+
+    public BotHost(String[] args) {
+        int sessionCount = args.length / SESSION_ARG_COUNT;
+        hosts = new String[sessionCount];
+        ports = new int[sessionCount];
+        tokens = new String[sessionCount];
+
+        for (int sessionIndex = 0; sessionIndex < sessionCount; ++sessionIndex) {
+            hosts[sessionIndex] = args[SESSION_ARG_COUNT * sessionIndex];
+            ports[sessionIndex] = Integer.parseInt(args[SESSION_ARG_COUNT * sessionIndex + 1]);
+            tokens[sessionIndex] = args[SESSION_ARG_COUNT * sessionIndex + 2];
+        }
+    }
+
+    /**
+     * Plays all sessions to the end.
+     *
+     * @return whether every session finished without an error
+     */
+    public boolean run() throws InterruptedException {
+        int sessionCount = hosts.length;
+        // the geometry mode is shared by the whole JVM, so it is set once here and never by a session
+        FastMath.setEnabled(Boolean.getBoolean(Runner.FAST_MATH_PROPERTY));
+        String recordPath = System.getProperty(Runner.RECORD_PROPERTY);
+        ExecutorService executor = newSessionExecutor();
+        Future<?>[] futures = new Future<?>[sessionCount];
+        Runner[] runners = new Runner[sessionCount];
+        long startTime = System.nanoTime();
+
+        try {
+            for (int sessionIndex = 0; sessionIndex < sessionCount; ++sessionIndex) {
+                futures[sessionIndex] = executor.submit(new Session(
+                        sessionIndex, recordPath == null ? null : recordPath + '.' + sessionIndex, runners
+                ));
+            }
+
+            boolean succeeded = true;
+            long tickCount = 0;
+
+            for (int sessionIndex = 0; sessionIndex < sessionCount; ++sessionIndex) {
+                String session = String.format(
+                        "Session %d (%s:%d)", sessionIndex, hosts[sessionIndex], ports[sessionIndex]
+                );
+                try {
+                    futures[sessionIndex].get();
+                    System.out.println(session + ": " + runners[sessionIndex].getTickCount() + " ticks.");
+                } catch (ExecutionException e) {
+                    succeeded = false;
+                    System.out.println(session + " failed: " + e.getCause() + '.');
+                }
+
+                if (runners[sessionIndex] != null) {
+                    tickCount += runners[sessionIndex].getTickCount();
+                }
+            }
+
+            long elapsedTime = System.nanoTime() - startTime;
+            System.out.println(String.format(
+                    "Played %d ticks in %d sessions in %.3f s: %.1f ticks/s.",
+                    tickCount, sessionCount, elapsedTime / 1.0E9, tickCount * 1.0E9 / elapsedTime
+            ));
+            return succeeded;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * {@code Executors.newVirtualThreadPerTaskExecutor()} where available; the strategy is built for older JVMs,
+     * so it is looked up by name.
+     */
+    private static ExecutorService newSessionExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            return Executors.newCachedThreadPool(new SessionThreadFactory());
+        } catch (IllegalAccessException e) {
+            throw new IllegalStateException("Can't create virtual threads.", e);
+        } catch (InvocationTargetException e) {
+            throw new IllegalStateException("Can't create virtual threads.", e.getCause());
+        }
+    }
+
+    private final class Session implements Callable<Void> {
+        private final int sessionIndex;
+        private final String recordPath;
+        private final Runner[] runners;
+
+        private Session(int sessionIndex, String recordPath, Runner[] runners) {
+            this.sessionIndex = sessionIndex;
+            this.recordPath = recordPath;
+            this.runners = runners;
+        }
+
+        @Override
+        public Void call() throws Exception {
+            Runner runner = new Runner(hosts[sessionIndex], ports[sessionIndex], tokens[sessionIndex], recordPath);
+            runners[sessionIndex] = runner;
+            runner.run();
+            return null;
+        }
+    }
+
+    private static final class SessionThreadFactory implements ThreadFactory {
+        private int threadCount;
+
+        @Override
+        public Thread newThread(Runnable runnable) {
+            return new Thread(runnable, "session-" + ++threadCount);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+import model.FastMath;
+import model.Move;
+import model.PlayerContext;
+import model.Tank;
+import model.World;
+
+import java.io.IOException;
+
+/**
+ * Differential check of the {@link FastMath} geometry mode on recorded games.
+ * <p>
+ * Usage: {@code FastMathComparison file...}. Every recorded tick is decoded once and played through two independent
+ * sets of {@link MyStrategy}, one with the strict geometry and one with the fast geometry. The tool prints the ticks
+ * where the two sets chose different moves and the time spent in each mode, and exits with status 1 if any tick
+ * differs.
+ */
+public final class FastMathComparison {
+    private long tickCount;
+    private long differentTickCount;
+    private long strictTime;
+    private long fastTime;
+
+    public static void main(String[] args) throws IOException {
+        FastMathComparison comparison = new FastMathComparison();
+
+        for (String path : args) {
+            comparison.compare(new TickReplay(path));
+        }
+
+        comparison.print();
+        if (comparison.differentTickCount > 0) {
+            System.exit(1);
+        }
+    }
+
+    public void compare(TickReplay replay) throws IOException {
+        if (replay.getTickCount() == 0) {
+            return;
+        }
+
+        RemoteProcessClient remoteProcessClient = new RemoteProcessClient(replay.getPlayerContextMessage(0));
+        int teamSize = replay.getTeamSize();
+        Strategy[] strictStrategies = newStrategies(teamSize);
+        Strategy[] fastStrategies = newStrategies(teamSize);
+        boolean enabled = FastMath.isEnabled();
+
+        try {
+            for (int tick = 0; tick < replay.getTickCount(); ++tick) {
+                remoteProcessClient.setInput(replay.getPlayerContextMessage(tick));
+                PlayerContext playerContext = remoteProcessClient.readPlayerContext();
+
+                Tank[] playerTanks = playerContext.getTanks();
+                if (playerTanks.length != teamSize) {
+                    break;
+                }
+
+                FastMath.setEnabled(false);
+                long startTime = System.nanoTime();
+                Move[] strictMoves = move(strictStrategies, playerTanks, playerContext.getWorld());
+                strictTime += System.nanoTime() - startTime;
+
+                FastMath.setEnabled(true);
+                startTime = System.nanoTime();
+                Move[] fastMoves = move(fastStrategies, playerTanks, playerContext.getWorld());
+                fastTime += System.nanoTime() - startTime;
+
+                ++tickCount;
+                if (!TickReplay.equals(fastMoves, strictMoves)) {
+                    ++differentTickCount;
+                    System.out.println(String.format("Tick %d of %s: moves differ.", tick, replay.getPath()));
+                }
+            }
+        } finally {
+            FastMath.setEnabled(enabled);
+        }
+    }
+
+    private static Strategy[] newStrategies(int teamSize) {
+        Strategy[] strategies = new Strategy[teamSize];
+
+        for (int strategyIndex = 0; strategyIndex < teamSize; ++strategyIndex) {
+            strategies[strategyIndex] = new MyStrategy();
+            strategies[strategyIndex].selectTank(strategyIndex, teamSize);
+        }
+
+        return strategies;
+    }
+
+    private static Move[] move(Strategy[] strategies, Tank[] playerTanks, World world) {
+        Move[] moves = new Move[strategies.length];
+
+        for (int strategyIndex = 0; strategyIndex < strategies.length; ++strategyIndex) {
+            moves[strategyIndex] = new Move();
+            strategies[strategyIndex].move(playerTanks[strategyIndex], world, moves[strategyIndex]);
+        }
+
+        return moves;
+    }
+
+    private void print() {
+        System.out.println(String.format(
+                "Compared %d ticks: %d ticks with different moves [strict=%.3f s, fast=%.3f s].",
+                tickCount, differentTickCount, strictTime / 1.0E9, fastTime / 1.0E9
+        ));
+    }
+}
@@ -0,0 +1,141 @@
+import model.Move;
+import model.PlayerContext;
+import model.Tank;
+import model.Unit;
+import model.World;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static java.lang.StrictMath.PI;
+
+/**
+ * Compares the angular isObstacle test with the {@link LineOfSight} segment test on recorded games. The angular
+ * test is the strategy's former line-of-fire check and is kept here as the reference.
+ * <p>
+ * Usage: {@code LineOfSightComparison file...}. For every recorded tick, alive tank of ours and alive enemy both
+ * tests decide whether the enemy is hidden; the tool prints how often they agree and the time per decision.
+ */
+public final class LineOfSightComparison {
+    private final SpatialGrid grid = new SpatialGrid();
+
+    private long decisionCount;
+    private long openCount;
+    private long hiddenCount;
+    private long hiddenByAngleOnlyCount;
+    private long hiddenBySegmentOnlyCount;
+    private long angleTime;
+    private long segmentTime;
+
+    public static void main(String[] args) throws IOException {
+        LineOfSightComparison comparison = new LineOfSightComparison();
+
+        for (String path : args) {
+            comparison.compare(new TickReplay(path));
+        }
+
+        comparison.print();
+    }
+
+    public void compare(TickReplay replay) throws IOException {
+        RemoteProcessClient remoteProcessClient = new RemoteProcessClient(replay.getPlayerContextMessage(0));
+
+        for (int tick = 0; tick < replay.getTickCount(); ++tick) {
+            remoteProcessClient.setInput(replay.getPlayerContextMessage(tick));
+            PlayerContext playerContext = remoteProcessClient.readPlayerContext();
+            World world = playerContext.getWorld();
+            WorldView view = new WorldView(world, grid);
+
+            for (Tank self : playerContext.getTanks()) {
+                if (BaseStrategyImpl.isAlive(self)) {
+                    compare(new BaseStrategyImpl(self, view, new Move(), State.Init), view.getAliveEnemies());
+                }
+            }
+        }
+    }
+
+    private void compare(BaseStrategyImpl strategy, List<Tank> enemies) {
+        long startTime = System.nanoTime();
+        List<Unit> obstacles = getObstacles(strategy);
+        boolean[] hiddenByAngle = new boolean[enemies.size()];
+        for (int enemyIndex = 0; enemyIndex < enemies.size(); ++enemyIndex) {
+            hiddenByAngle[enemyIndex] = existObstacle(strategy.self, enemies.get(enemyIndex), obstacles);
+        }
+        angleTime += System.nanoTime() - startTime;
+
+        startTime = System.nanoTime();
+        List<Tank> openEnemies = strategy.selectOpenEnemies(enemies);
+        segmentTime += System.nanoTime() - startTime;
+
+        for (int enemyIndex = 0; enemyIndex < enemies.size(); ++enemyIndex) {
+            boolean hiddenBySegment = !openEnemies.contains(enemies.get(enemyIndex));
+            ++decisionCount;
+
+            if (hiddenByAngle[enemyIndex] && hiddenBySegment) {
+                ++hiddenCount;
+            } else if (hiddenByAngle[enemyIndex]) {
+                ++hiddenByAngleOnlyCount;
+            } else if (hiddenBySegment) {
+                ++hiddenBySegmentOnlyCount;
+            } else {
+                ++openCount;
+            }
+        }
+    }
+
+    private static List<Unit> getObstacles(BaseStrategyImpl strategy) {
+        List<Unit> res = new ArrayList<Unit>();
+        res.addAll(strategy.getDeadTanks());
+        res.addAll(Arrays.asList(strategy.world.getBonuses()));
+        res.addAll(Arrays.asList(strategy.world.getObstacles()));
+        res.addAll(strategy.getAliveTeammates());
+        return res;
+    }
+
+    private static boolean existObstacle(Tank self, Tank enemy, List<Unit> obstacles) {
+        for (Unit obstacle : obstacles) {
+            if (isObstacle(self, enemy, obstacle)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isObstacle(Tank self, Tank enemy, Unit obstacle) {
+        if (self.getSquaredDistanceTo(enemy) < self.getSquaredDistanceTo(obstacle)) {
+            return false;
+        }
+        double enemyAngle = self.getAngleTo(enemy);
+        double[] obstacleAngles = getSortedAngles(self, obstacle);
+        double minObstacleAngle = obstacleAngles[0];
+        double maxObstacleAngle = obstacleAngles[3];
+        if (maxObstacleAngle - minObstacleAngle > PI) {
+            return enemyAngle <= minObstacleAngle || enemyAngle >= maxObstacleAngle;
+        } else {
+            return minObstacleAngle <= enemyAngle && enemyAngle <= maxObstacleAngle;
+        }
+    }
+
+    private static double[] getSortedAngles(Tank self, Unit unit) {
+        Unit.Geometry rect = unit.getGeometry();
+        double[] angles = new double[4];
+        for (int i = 0; i < 4; ++i) {
+            angles[i] = self.getAngleTo(rect.getCornerX(i), rect.getCornerY(i));
+        }
+        Arrays.sort(angles);
+        return angles;
+    }
+
+    private void print() {
+        System.out.println(String.format(
+                "Decisions [total=%d, open=%d, hidden=%d, hiddenByAngleOnly=%d, hiddenBySegmentOnly=%d].",
+                decisionCount, openCount, hiddenCount, hiddenByAngleOnlyCount, hiddenBySegmentOnlyCount
+        ));
+        System.out.println(String.format(
+                "Time per decision [angle=%.1f ns, segment=%.1f ns].",
+                (double) angleTime / Math.max(1L, decisionCount), (double) segmentTime / Math.max(1L, decisionCount)
+        ));
+    }
+}
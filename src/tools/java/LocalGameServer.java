@@ -0,0 +1,142 @@
+import model.Move;
+import model.TankType;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Plays a synthetic game against a strategy over the RemoteProcessClient protocol and reports
+ * ticks per second and per-tick round-trip latency.
+ * <p>
+ * Usage: {@code LocalGameServer [scenario|recording [tickCount [port]]]}. Without a port the server listens on a
+ * free loopback port and runs {@link Runner} in the same JVM; with a port it waits for an external Runner.
+ * A recording written by {@link TickRecorder} is sent tick by tick regardless of the moves received;
+ * tickCount applies to synthetic scenarios only.
+ */
+public final class LocalGameServer {
+    private static final String DEFAULT_SCENARIO = "crowded";
+    private static final int DEFAULT_TICK_COUNT = 3000;
+    private static final long SEED = 20121031L;
+    private static final String TOKEN = "0000000000000000";
+
+    private final RemoteProcessServer server;
+    private final SyntheticGame game;
+    private final TickReplay replay;
+
+    public static void main(String[] args) throws Exception {
+        String scenario = args.length > 0 ? args[0] : DEFAULT_SCENARIO;
+        int tickCount = args.length > 1 ? Integer.parseInt(args[1]) : DEFAULT_TICK_COUNT;
+        int port = args.length > 2 ? Integer.parseInt(args[2]) : 0;
+
+        LocalGameServer localGameServer = new File(scenario).isFile()
+                ? new LocalGameServer(new RemoteProcessServer(port), new TickReplay(scenario))
+                : new LocalGameServer(new RemoteProcessServer(port), SyntheticGame.create(scenario, tickCount, SEED));
+
+        Thread runnerThread = null;
+        if (port == 0) {
+            runnerThread = startRunner(localGameServer.server.getPort());
+        } else {
+            System.out.println("Waiting for a strategy on port " + localGameServer.server.getPort() + ".");
+        }
+
+        localGameServer.run();
+
+        if (runnerThread != null) {
+            runnerThread.join();
+        }
+    }
+
+    public LocalGameServer(RemoteProcessServer server, SyntheticGame game) {
+        this.server = server;
+        this.game = game;
+        this.replay = null;
+    }
+
+    public LocalGameServer(RemoteProcessServer server, TickReplay replay) {
+        this.server = server;
+        this.game = null;
+        this.replay = replay;
+    }
+
+    public void run() throws IOException {
+        try {
+            server.accept();
+            server.readToken();
+            server.writeTeamSize(replay == null ? game.getTeamSize() : replay.getTeamSize());
+
+            TankType[] tankTypes = server.readSelectedTanks();
+            if (replay == null) {
+                game.setPlayerTankTypes(tankTypes);
+            }
+
+            long[] latencies = new long[16];
+            int tickCount = 0;
+            long startTime = System.nanoTime();
+
+            while (replay == null ? !game.isOver() : tickCount < replay.getTickCount()) {
+                long tickStartTime = System.nanoTime();
+                if (replay == null) {
+                    server.writePlayerContext(game.getPlayerTanks(), game.getWorld());
+                } else {
+                    server.writeMessage(replay.getPlayerContextMessage(tickCount));
+                }
+                Move[] moves = server.readMoves();
+
+                if (tickCount == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, 2 * tickCount);
+                }
+                latencies[tickCount++] = System.nanoTime() - tickStartTime;
+
+                if (replay == null) {
+                    game.step(moves);
+                }
+            }
+
+            long elapsedTime = System.nanoTime() - startTime;
+            server.writeGameOver();
+
+            printStatistics(Arrays.copyOf(latencies, tickCount), elapsedTime);
+        } finally {
+            server.close();
+        }
+    }
+
+    private static void printStatistics(long[] latencies, long elapsedTime) {
+        int tickCount = latencies.length;
+        if (tickCount == 0) {
+            System.out.println("No ticks played.");
+            return;
+        }
+
+        long totalLatency = 0;
+        for (long latency : latencies) {
+            totalLatency += latency;
+        }
+        Arrays.sort(latencies);
+
+        System.out.println(String.format(
+                "Played %d ticks in %.3f s: %.1f ticks/s.", tickCount, elapsedTime / 1.0E9, tickCount * 1.0E9 / elapsedTime
+        ));
+        System.out.println(String.format(
+                "Round trip [mean=%.1f us, p50=%.1f us, p99=%.1f us, max=%.1f us].",
+                totalLatency / 1.0E3 / tickCount, latencies[tickCount / 2] / 1.0E3,
+                latencies[(int) (0.99 * (tickCount - 1))] / 1.0E3, latencies[tickCount - 1] / 1.0E3
+        ));
+    }
+
+    private static Thread startRunner(final int port) {
+        Thread thread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    Runner.main(new String[]{"localhost", Integer.toString(port), TOKEN});
+                } catch (IOException e) {
+                    throw new RuntimeException("Runner failed.", e);
+                }
+            }
+        }, "Runner");
+        thread.start();
+        return thread;
+    }
+}
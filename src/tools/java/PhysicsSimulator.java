@@ -0,0 +1,360 @@
+import model.Shell;
+import model.Tank;
+import model.World;
+
+import java.util.Arrays;
+
+import static java.lang.StrictMath.*;
+
+/**
+ * Deterministic forward simulation of the {@link SyntheticGame} kinematics on primitive columns. It simulates the
+ * synthetic game only: the acceleration and friction constants are invented for that game and have not been fitted
+ * to the real game server. Until they are, the simulator stays with the developer tools, and the strategy doesn't
+ * use it; {@code getDangerShells} and the turret aiming still extrapolate in straight lines.
+ * <p>
+ * Tanks follow the synthetic track model of {@link #stepTank}, which the synthetic game steps its own tanks with,
+ * with the mass, engine power, rear power factor and turret turn speed of their type. Tanks don't collide with each
+ * other or with obstacles and stop at the walls of the world; dead tanks don't move. A shell flies straight until
+ * it leaves the world or the segment it flew in a tick crosses the oriented box of a tank, which counts as a hit
+ * ({@link #getHitTank}, shared with the synthetic game as well).
+ * <p>
+ * Columns grow to the largest world loaded; after that {@link #load}, {@link #setControls} and {@link #step} don't
+ * allocate.
+ */
+public final class PhysicsSimulator {
+    static final double ACCELERATION_FACTOR = 1.4E-4;
+    static final double MOVEMENT_FRICTION = 0.95;
+    static final double ROTATION_ACCELERATION = 0.002;
+    static final double ROTATION_FRICTION = 0.9;
+
+    private double width;
+    private double height;
+    private int tick;
+
+    private int tankCount;
+    private double[] tankXs = new double[0];
+    private double[] tankYs = new double[0];
+    private double[] tankSpeedXs = new double[0];
+    private double[] tankSpeedYs = new double[0];
+    private double[] tankAngles = new double[0];
+    private double[] tankAngularSpeeds = new double[0];
+    private double[] turretRelativeAngles = new double[0];
+    private double[] masses = new double[0];
+    private double[] enginePowers = new double[0];
+    private double[] engineRearPowerFactors = new double[0];
+    private double[] turretTurnSpeeds = new double[0];
+    private double[] turretMaxRelativeAngles = new double[0];
+    private double[] halfWidths = new double[0];
+    private double[] halfHeights = new double[0];
+    private boolean[] alive = new boolean[0];
+    private double[] leftPowers = new double[0];
+    private double[] rightPowers = new double[0];
+    private double[] turretTurns = new double[0];
+
+    private int shellCount;
+    private double[] shellXs = new double[0];
+    private double[] shellYs = new double[0];
+    private double[] shellSpeedXs = new double[0];
+    private double[] shellSpeedYs = new double[0];
+    private boolean[] shellFlying = new boolean[0];
+    private int[] shellHitTanks = new int[0];
+
+    private final LineOfSight lineOfSight = new LineOfSight();
+
+    /**
+     * Copies the tanks and shells of the world in the order of its arrays. All controls are reset to zero.
+     */
+    public void load(World world) {
+        width = world.getWidth();
+        height = world.getHeight();
+        tick = 0;
+
+        Tank[] tanks = world.getTanks();
+        ensureTankCapacity(tanks.length);
+        tankCount = tanks.length;
+
+        for (int tankIndex = 0; tankIndex < tankCount; ++tankIndex) {
+            Tank tank = tanks[tankIndex];
+            tankXs[tankIndex] = tank.getX();
+            tankYs[tankIndex] = tank.getY();
+            tankSpeedXs[tankIndex] = tank.getSpeedX();
+            tankSpeedYs[tankIndex] = tank.getSpeedY();
+            tankAngles[tankIndex] = tank.getAngle();
+            tankAngularSpeeds[tankIndex] = tank.getAngularSpeed();
+            turretRelativeAngles[tankIndex] = tank.getTurretRelativeAngle();
+            masses[tankIndex] = tank.getMass();
+            enginePowers[tankIndex] = tank.getEnginePower();
+            engineRearPowerFactors[tankIndex] = tank.getEngineRearPowerFactor();
+            turretTurnSpeeds[tankIndex] = tank.getTurretTurnSpeed();
+            turretMaxRelativeAngles[tankIndex] = tank.getTurretMaxRelativeAngle();
+            halfWidths[tankIndex] = tank.getWidth() / 2;
+            halfHeights[tankIndex] = tank.getHeight() / 2;
+            alive[tankIndex] = tank.getCrewHealth() > 0 && tank.getHullDurability() > 0;
+            leftPowers[tankIndex] = 0;
+            rightPowers[tankIndex] = 0;
+            turretTurns[tankIndex] = 0;
+        }
+
+        Shell[] shells = world.getShells();
+        ensureShellCapacity(shells.length);
+        shellCount = shells.length;
+
+        for (int shellIndex = 0; shellIndex < shellCount; ++shellIndex) {
+            Shell shell = shells[shellIndex];
+            shellXs[shellIndex] = shell.getX();
+            shellYs[shellIndex] = shell.getY();
+            shellSpeedXs[shellIndex] = shell.getSpeedX();
+            shellSpeedYs[shellIndex] = shell.getSpeedY();
+            shellFlying[shellIndex] = true;
+            shellHitTanks[shellIndex] = -1;
+        }
+    }
+
+    /**
+     * Sets the controls the tank keeps for the following steps, as in {@link model.Move}.
+     */
+    public void setControls(int tankIndex, double leftTrackPower, double rightTrackPower, double turretTurn) {
+        leftPowers[tankIndex] = toTrackPower(leftTrackPower, engineRearPowerFactors[tankIndex]);
+        rightPowers[tankIndex] = toTrackPower(rightTrackPower, engineRearPowerFactors[tankIndex]);
+        turretTurns[tankIndex] = limit(turretTurn, turretTurnSpeeds[tankIndex]);
+    }
+
+    public void step(int tickCount) {
+        for (int i = 0; i < tickCount; ++i) {
+            step();
+        }
+    }
+
+    public void step() {
+        for (int tankIndex = 0; tankIndex < tankCount; ++tankIndex) {
+            if (alive[tankIndex]) {
+                stepTank(
+                        tankIndex, leftPowers[tankIndex], rightPowers[tankIndex], turretTurns[tankIndex],
+                        enginePowers[tankIndex], masses[tankIndex], halfWidths[tankIndex],
+                        turretMaxRelativeAngles[tankIndex], width, height,
+                        tankXs, tankYs, tankSpeedXs, tankSpeedYs, tankAngles, tankAngularSpeeds, turretRelativeAngles
+                );
+            }
+        }
+
+        for (int shellIndex = 0; shellIndex < shellCount; ++shellIndex) {
+            if (shellFlying[shellIndex]) {
+                stepShell(shellIndex);
+            }
+        }
+
+        ++tick;
+    }
+
+    /**
+     * @return number of steps since the last {@link #load}
+     */
+    public int getTick() {
+        return tick;
+    }
+
+    public int getTankCount() {
+        return tankCount;
+    }
+
+    public double getTankX(int tankIndex) {
+        return tankXs[tankIndex];
+    }
+
+    public double getTankY(int tankIndex) {
+        return tankYs[tankIndex];
+    }
+
+    public double getTankSpeedX(int tankIndex) {
+        return tankSpeedXs[tankIndex];
+    }
+
+    public double getTankSpeedY(int tankIndex) {
+        return tankSpeedYs[tankIndex];
+    }
+
+    public double getTankAngle(int tankIndex) {
+        return tankAngles[tankIndex];
+    }
+
+    public double getTankAngularSpeed(int tankIndex) {
+        return tankAngularSpeeds[tankIndex];
+    }
+
+    public double getTurretRelativeAngle(int tankIndex) {
+        return turretRelativeAngles[tankIndex];
+    }
+
+    public int getShellCount() {
+        return shellCount;
+    }
+
+    public double getShellX(int shellIndex) {
+        return shellXs[shellIndex];
+    }
+
+    public double getShellY(int shellIndex) {
+        return shellYs[shellIndex];
+    }
+
+    /**
+     * @return whether the shell is still inside the world and hasn't hit a tank
+     */
+    public boolean isShellFlying(int shellIndex) {
+        return shellFlying[shellIndex];
+    }
+
+    /**
+     * @return index of the tank the shell has hit, or -1
+     */
+    public int getShellHitTank(int shellIndex) {
+        return shellHitTanks[shellIndex];
+    }
+
+    /**
+     * @return the track power of a {@link model.Move} limited to [-1, 1], with a backward power scaled by the rear
+     * power factor
+     */
+    static double toTrackPower(double trackPower, double engineRearPowerFactor) {
+        trackPower = limit(trackPower, 1);
+        return trackPower < 0 ? trackPower * engineRearPowerFactor : trackPower;
+    }
+
+    /**
+     * Moves the tank at the index of the columns by a tick of the synthetic track model.
+     *
+     * @param leftPower left track power from {@link #toTrackPower}
+     * @param rightPower right track power from {@link #toTrackPower}
+     * @param turretTurn turret turn already limited to the turret turn speed
+     */
+    static void stepTank(
+            int tankIndex, double leftPower, double rightPower, double turretTurn,
+            double enginePower, double mass, double halfWidth, double turretMaxRelativeAngle,
+            double worldWidth, double worldHeight,
+            double[] xs, double[] ys, double[] speedXs, double[] speedYs, double[] angles, double[] angularSpeeds,
+            double[] turretRelativeAngles) {
+        double acceleration = (leftPower + rightPower) / 2 * enginePower / mass * ACCELERATION_FACTOR;
+        double angle = angles[tankIndex];
+
+        speedXs[tankIndex] = speedXs[tankIndex] * MOVEMENT_FRICTION + acceleration * cos(angle);
+        speedYs[tankIndex] = speedYs[tankIndex] * MOVEMENT_FRICTION + acceleration * sin(angle);
+        angularSpeeds[tankIndex] = angularSpeeds[tankIndex] * ROTATION_FRICTION
+                + (leftPower - rightPower) * ROTATION_ACCELERATION;
+
+        angles[tankIndex] = normalizeAngle(angle + angularSpeeds[tankIndex]);
+        xs[tankIndex] += speedXs[tankIndex];
+        ys[tankIndex] += speedYs[tankIndex];
+
+        if (xs[tankIndex] < halfWidth || xs[tankIndex] > worldWidth - halfWidth) {
+            xs[tankIndex] = max(halfWidth, min(worldWidth - halfWidth, xs[tankIndex]));
+            speedXs[tankIndex] = 0;
+        }
+        if (ys[tankIndex] < halfWidth || ys[tankIndex] > worldHeight - halfWidth) {
+            ys[tankIndex] = max(halfWidth, min(worldHeight - halfWidth, ys[tankIndex]));
+            speedYs[tankIndex] = 0;
+        }
+
+        double turretAngle = turretRelativeAngles[tankIndex] + turretTurn;
+        turretRelativeAngles[tankIndex] = turretMaxRelativeAngle > 0
+                ? limit(turretAngle, turretMaxRelativeAngle) : normalizeAngle(turretAngle);
+    }
+
+    /**
+     * @param lineOfSight scratch space of the caller
+     * @return index of the first tank whose oriented box the segment a shell flew from (fromX, fromY) to (toX, toY)
+     * crosses, or -1
+     */
+    static int getHitTank(
+            LineOfSight lineOfSight, double fromX, double fromY, double toX, double toY, int tankCount,
+            double[] xs, double[] ys, double[] angles, double[] halfWidths, double[] halfHeights) {
+        for (int tankIndex = 0; tankIndex < tankCount; ++tankIndex) {
+            double angle = angles[tankIndex];
+            lineOfSight.clear();
+            lineOfSight.add(
+                    xs[tankIndex], ys[tankIndex], cos(angle), sin(angle), halfWidths[tankIndex], halfHeights[tankIndex]
+            );
+
+            if (lineOfSight.isBlocked(fromX, fromY, toX, toY)) {
+                return tankIndex;
+            }
+        }
+
+        return -1;
+    }
+
+    private void stepShell(int shellIndex) {
+        double fromX = shellXs[shellIndex];
+        double fromY = shellYs[shellIndex];
+        double x = fromX + shellSpeedXs[shellIndex];
+        double y = fromY + shellSpeedYs[shellIndex];
+        shellXs[shellIndex] = x;
+        shellYs[shellIndex] = y;
+
+        if (x < 0 || x > width || y < 0 || y > height) {
+            shellFlying[shellIndex] = false;
+            return;
+        }
+
+        int hitTank = getHitTank(
+                lineOfSight, fromX, fromY, x, y, tankCount, tankXs, tankYs, tankAngles, halfWidths, halfHeights
+        );
+        if (hitTank != -1) {
+            shellFlying[shellIndex] = false;
+            shellHitTanks[shellIndex] = hitTank;
+        }
+    }
+
+    private void ensureTankCapacity(int capacity) {
+        if (tankXs.length >= capacity) {
+            return;
+        }
+
+        tankXs = Arrays.copyOf(tankXs, capacity);
+        tankYs = Arrays.copyOf(tankYs, capacity);
+        tankSpeedXs = Arrays.copyOf(tankSpeedXs, capacity);
+        tankSpeedYs = Arrays.copyOf(tankSpeedYs, capacity);
+        tankAngles = Arrays.copyOf(tankAngles, capacity);
+        tankAngularSpeeds = Arrays.copyOf(tankAngularSpeeds, capacity);
+        turretRelativeAngles = Arrays.copyOf(turretRelativeAngles, capacity);
+        masses = Arrays.copyOf(masses, capacity);
+        enginePowers = Arrays.copyOf(enginePowers, capacity);
+        engineRearPowerFactors = Arrays.copyOf(engineRearPowerFactors, capacity);
+        turretTurnSpeeds = Arrays.copyOf(turretTurnSpeeds, capacity);
+        turretMaxRelativeAngles = Arrays.copyOf(turretMaxRelativeAngles, capacity);
+        halfWidths = Arrays.copyOf(halfWidths, capacity);
+        halfHeights = Arrays.copyOf(halfHeights, capacity);
+        alive = Arrays.copyOf(alive, capacity);
+        leftPowers = Arrays.copyOf(leftPowers, capacity);
+        rightPowers = Arrays.copyOf(rightPowers, capacity);
+        turretTurns = Arrays.copyOf(turretTurns, capacity);
+    }
+
+    private void ensureShellCapacity(int capacity) {
+        if (shellXs.length >= capacity) {
+            return;
+        }
+
+        shellXs = Arrays.copyOf(shellXs, capacity);
+        shellYs = Arrays.copyOf(shellYs, capacity);
+        shellSpeedXs = Arrays.copyOf(shellSpeedXs, capacity);
+        shellSpeedYs = Arrays.copyOf(shellSpeedYs, capacity);
+        shellFlying = Arrays.copyOf(shellFlying, capacity);
+        shellHitTanks = Arrays.copyOf(shellHitTanks, capacity);
+    }
+
+    private static double limit(double value, double bound) {
+        return max(-bound, min(bound, value));
+    }
+
+    private static double normalizeAngle(double angle) {
+        while (angle > PI) {
+            angle -= 2.0D * PI;
+        }
+
+        while (angle < -PI) {
+            angle += 2.0D * PI;
+        }
+
+        return angle;
+    }
+}
@@ -0,0 +1,351 @@
+import model.*;
+
+import java.io.*;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.Charset;
+
+/**
+ * Game server side of the RemoteProcessClient protocol. Accepts a single strategy process.
+ */
+public final class RemoteProcessServer implements Closeable {
+    private static final int BUFFER_SIZE_BYTES = 1 << 20;
+    private static final ByteOrder PROTOCOL_BYTE_ORDER = ByteOrder.LITTLE_ENDIAN;
+    private static final Charset PROTOCOL_CHARSET = Charset.forName("UTF-8");
+    private static final int INTEGER_SIZE_BYTES = Integer.SIZE / Byte.SIZE;
+    private static final int LONG_SIZE_BYTES = Long.SIZE / Byte.SIZE;
+    private static final int MOVE_SIZE_BYTES = 2 + 3 * LONG_SIZE_BYTES;
+
+    private static final TankType[] TANK_TYPES = TankType.values();
+    private static final FireType[] FIRE_TYPES = FireType.values();
+
+    private final ServerSocket serverSocket;
+    private final ByteBuffer inputBuffer;
+    private final ByteBuffer outputBuffer;
+
+    private Socket socket;
+    private InputStream inputStream;
+    private OutputStream outputStream;
+    private int teamSize;
+
+    public RemoteProcessServer(int port) throws IOException {
+        serverSocket = new ServerSocket(port);
+        inputBuffer = ByteBuffer.allocate(BUFFER_SIZE_BYTES).order(PROTOCOL_BYTE_ORDER);
+        outputBuffer = ByteBuffer.allocate(BUFFER_SIZE_BYTES).order(PROTOCOL_BYTE_ORDER);
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public void accept() throws IOException {
+        socket = serverSocket.accept();
+        socket.setSendBufferSize(BUFFER_SIZE_BYTES);
+        socket.setReceiveBufferSize(BUFFER_SIZE_BYTES);
+
+        inputStream = socket.getInputStream();
+        outputStream = socket.getOutputStream();
+    }
+
+    public String readToken() throws IOException {
+        ensureMessageType(readByte(), MessageType.AUTHENTICATION_TOKEN);
+
+        int length = readInt();
+        if (length == -1) {
+            return null;
+        }
+
+        readFully(length);
+        return new String(inputBuffer.array(), 0, length, PROTOCOL_CHARSET);
+    }
+
+    public void writeTeamSize(int teamSize) throws IOException {
+        this.teamSize = teamSize;
+        outputBuffer.put((byte) MessageType.TEAM_SIZE.ordinal());
+        outputBuffer.putInt(teamSize);
+        flush();
+    }
+
+    public TankType[] readSelectedTanks() throws IOException {
+        ensureMessageType(readByte(), MessageType.TANK_TYPES);
+
+        int typeCount = readInt();
+        if (typeCount < 0) {
+            return null;
+        }
+
+        TankType[] tankTypes = new TankType[typeCount];
+
+        for (int typeIndex = 0; typeIndex < typeCount; ++typeIndex) {
+            byte ordinal = readByte();
+            tankTypes[typeIndex] = ordinal == -1 ? null : TANK_TYPES[ordinal];
+        }
+
+        return tankTypes;
+    }
+
+    public void writePlayerContext(Tank[] tanks, World world) throws IOException {
+        writePlayerContext(outputBuffer, tanks, world);
+        flush();
+    }
+
+    /**
+     * Sends an already encoded message, such as a recorded PLAYER_CONTEXT.
+     */
+    public void writeMessage(ByteBuffer message) throws IOException {
+        outputBuffer.put(message);
+        flush();
+    }
+
+    /**
+     * Reads the whole message with a single read, so the strategy must send a move for every tank of the team, as
+     * Runner does. A shorter message would block the server until the connection closes.
+     */
+    public Move[] readMoves() throws IOException {
+        readFully(1 + INTEGER_SIZE_BYTES + teamSize * MOVE_SIZE_BYTES);
+        ensureMessageType(inputBuffer.get(), MessageType.MOVES);
+
+        int moveCount = inputBuffer.getInt();
+        if (moveCount != teamSize) {
+            throw new IllegalArgumentException(String.format(
+                    "Received wrong move count [actual=%d, expected=%d].", moveCount, teamSize
+            ));
+        }
+
+        Move[] moves = new Move[moveCount];
+
+        for (int moveIndex = 0; moveIndex < moveCount; ++moveIndex) {
+            if (inputBuffer.get() != 1) {
+                throw new IllegalArgumentException("Received no move for tank " + moveIndex + '.');
+            }
+
+            Move move = new Move();
+            move.setLeftTrackPower(Double.longBitsToDouble(inputBuffer.getLong()));
+            move.setRightTrackPower(Double.longBitsToDouble(inputBuffer.getLong()));
+            move.setTurretTurn(Double.longBitsToDouble(inputBuffer.getLong()));
+
+            byte ordinal = inputBuffer.get();
+            move.setFireType(ordinal == -1 ? null : FIRE_TYPES[ordinal]);
+
+            moves[moveIndex] = move;
+        }
+
+        return moves;
+    }
+
+    public void writeGameOver() throws IOException {
+        outputBuffer.put((byte) MessageType.GAME_OVER.ordinal());
+        flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (socket != null) {
+                socket.close();
+            }
+        } finally {
+            serverSocket.close();
+        }
+    }
+
+    /**
+     * Encodes a complete PLAYER_CONTEXT message exactly as the game server sends it.
+     */
+    public static void writePlayerContext(ByteBuffer buffer, Tank[] tanks, World world) {
+        buffer.put((byte) MessageType.PLAYER_CONTEXT.ordinal());
+        buffer.put((byte) 1);
+        writeTanks(buffer, tanks);
+        writeWorld(buffer, world);
+    }
+
+    private static void writeWorld(ByteBuffer buffer, World world) {
+        if (world == null) {
+            buffer.put((byte) 0);
+            return;
+        }
+
+        buffer.put((byte) 1);
+        buffer.putInt(world.getTick());
+        buffer.putDouble(world.getWidth());
+        buffer.putDouble(world.getHeight());
+
+        Player[] players = world.getPlayers();
+        buffer.putInt(players.length);
+
+        for (Player player : players) {
+            if (player == null) {
+                buffer.put((byte) 0);
+            } else {
+                buffer.put((byte) 1);
+                writeString(buffer, player.getName());
+                buffer.putInt(player.getScore());
+                writeBoolean(buffer, player.isStrategyCrashed());
+            }
+        }
+
+        Obstacle[] obstacles = world.getObstacles();
+        buffer.putInt(obstacles.length);
+
+        for (Obstacle obstacle : obstacles) {
+            if (obstacle == null) {
+                buffer.put((byte) 0);
+            } else {
+                buffer.put((byte) 1);
+                buffer.putLong(obstacle.getId());
+                buffer.putDouble(obstacle.getWidth());
+                buffer.putDouble(obstacle.getHeight());
+                buffer.putDouble(obstacle.getX());
+                buffer.putDouble(obstacle.getY());
+            }
+        }
+
+        writeTanks(buffer, world.getTanks());
+
+        Shell[] shells = world.getShells();
+        buffer.putInt(shells.length);
+
+        for (Shell shell : shells) {
+            if (shell == null) {
+                buffer.put((byte) 0);
+            } else {
+                buffer.put((byte) 1);
+                buffer.putLong(shell.getId());
+                writeString(buffer, shell.getPlayerName());
+                buffer.putDouble(shell.getWidth());
+                buffer.putDouble(shell.getHeight());
+                buffer.putDouble(shell.getX());
+                buffer.putDouble(shell.getY());
+                buffer.putDouble(shell.getSpeedX());
+                buffer.putDouble(shell.getSpeedY());
+                buffer.putDouble(shell.getAngle());
+                buffer.putDouble(shell.getAngularSpeed());
+                writeEnum(buffer, shell.getType());
+            }
+        }
+
+        Bonus[] bonuses = world.getBonuses();
+        buffer.putInt(bonuses.length);
+
+        for (Bonus bonus : bonuses) {
+            if (bonus == null) {
+                buffer.put((byte) 0);
+            } else {
+                buffer.put((byte) 1);
+                buffer.putLong(bonus.getId());
+                buffer.putDouble(bonus.getWidth());
+                buffer.putDouble(bonus.getHeight());
+                buffer.putDouble(bonus.getX());
+                buffer.putDouble(bonus.getY());
+                writeEnum(buffer, bonus.getType());
+            }
+        }
+    }
+
+    private static void writeTanks(ByteBuffer buffer, Tank[] tanks) {
+        if (tanks == null) {
+            buffer.putInt(-1);
+            return;
+        }
+
+        buffer.putInt(tanks.length);
+
+        for (Tank tank : tanks) {
+            if (tank == null) {
+                buffer.put((byte) 0);
+            } else {
+                buffer.put((byte) 1);
+                buffer.putLong(tank.getId());
+                writeString(buffer, tank.getPlayerName());
+                buffer.putInt(tank.getTeammateIndex());
+                buffer.putDouble(tank.getX());
+                buffer.putDouble(tank.getY());
+                buffer.putDouble(tank.getSpeedX());
+                buffer.putDouble(tank.getSpeedY());
+                buffer.putDouble(tank.getAngle());
+                buffer.putDouble(tank.getAngularSpeed());
+                buffer.putDouble(tank.getTurretRelativeAngle());
+                buffer.putInt(tank.getCrewHealth());
+                buffer.putInt(tank.getHullDurability());
+                buffer.putInt(tank.getReloadingTime());
+                buffer.putInt(tank.getRemainingReloadingTime());
+                buffer.putInt(tank.getPremiumShellCount());
+                writeBoolean(buffer, tank.isTeammate());
+                writeEnum(buffer, tank.getType());
+            }
+        }
+    }
+
+    private static void writeString(ByteBuffer buffer, String value) {
+        if (value == null) {
+            buffer.putInt(-1);
+            return;
+        }
+
+        byte[] bytes = value.getBytes(PROTOCOL_CHARSET);
+        buffer.putInt(bytes.length);
+        buffer.put(bytes);
+    }
+
+    private static void writeBoolean(ByteBuffer buffer, boolean value) {
+        buffer.put((byte) (value ? 1 : 0));
+    }
+
+    private static <E extends Enum> void writeEnum(ByteBuffer buffer, E value) {
+        buffer.put((byte) (value == null ? -1 : value.ordinal()));
+    }
+
+    private static void ensureMessageType(byte actualOrdinal, MessageType expectedType) {
+        if (actualOrdinal != expectedType.ordinal()) {
+            throw new IllegalArgumentException(String.format(
+                    "Received wrong message [actual=%d, expected=%s].", actualOrdinal, expectedType
+            ));
+        }
+    }
+
+    private byte readByte() throws IOException {
+        readFully(1);
+        return inputBuffer.get();
+    }
+
+    private int readInt() throws IOException {
+        readFully(INTEGER_SIZE_BYTES);
+        return inputBuffer.getInt();
+    }
+
+    private void readFully(int byteCount) throws IOException {
+        inputBuffer.clear();
+        int offset = 0;
+        int readByteCount;
+
+        while (offset < byteCount && (readByteCount = inputStream.read(
+                inputBuffer.array(), offset, byteCount - offset
+        )) != -1) {
+            offset += readByteCount;
+        }
+
+        if (offset != byteCount) {
+            throw new IOException(String.format("Can't read %d bytes from input stream.", byteCount));
+        }
+
+        inputBuffer.limit(byteCount);
+    }
+
+    private void flush() throws IOException {
+        outputStream.write(outputBuffer.array(), 0, outputBuffer.position());
+        outputBuffer.clear();
+        outputStream.flush();
+    }
+
+    private enum MessageType {
+        UNKNOWN,
+        GAME_OVER,
+        AUTHENTICATION_TOKEN,
+        TEAM_SIZE,
+        TANK_TYPES,
+        PLAYER_CONTEXT,
+        MOVES
+    }
+}
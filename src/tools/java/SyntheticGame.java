@@ -0,0 +1,556 @@
+import model.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static java.lang.StrictMath.*;
+
+/**
+ * Deterministic stand-in for the game simulation. Its physics only roughly follows the real game:
+ * it exists to produce worlds of realistic size and shape for local runs and benchmarks. Tanks move and shells hit
+ * through the routines of {@link PhysicsSimulator}, so the simulator follows this game exactly.
+ * Player 0 is the strategy under test, all other players are driven by a simple built-in bot.
+ */
+public final class SyntheticGame {
+    public static final String[] SCENARIOS = {"crowded", "oneOnOne", "twoOnOne", "team"};
+
+    private static final double WORLD_WIDTH = 1280;
+    private static final double WORLD_HEIGHT = 800;
+    private static final double SPAWN_MARGIN = 80;
+
+    private static final double REGULAR_SHELL_SPEED = 16.7;
+    private static final double PREMIUM_SHELL_SPEED = 13.3;
+    private static final int REGULAR_SHELL_DAMAGE = 20;
+    private static final int PREMIUM_SHELL_DAMAGE = 35;
+    private static final int RELOADING_TIME = 60;
+
+    private static final int BONUS_INTERVAL = 300;
+    private static final int MAX_BONUS_COUNT = 4;
+    private static final double BONUS_SIZE = 30;
+    private static final int MEDIKIT_HEALTH = 35;
+    private static final int REPAIR_KIT_DURABILITY = 50;
+    private static final int AMMO_CRATE_SHELLS = 3;
+
+    private final Random random;
+    private final int playerCount;
+    private final int tickCount;
+    private final String[] playerNames;
+    private final int[] scores;
+
+    private final int tankCount;
+    private final long[] tankIds;
+    private final int[] tankPlayers;
+    private final int[] teammateIndexes;
+    private final TankType[] tankTypes;
+    private final double[] tankX;
+    private final double[] tankY;
+    private final double[] tankSpeedX;
+    private final double[] tankSpeedY;
+    private final double[] tankAngles;
+    private final double[] tankAngularSpeeds;
+    private final double[] turretAngles;
+    private final int[] crewHealth;
+    private final int[] hullDurability;
+    private final int[] remainingReloadingTime;
+    private final int[] premiumShellCount;
+    private final double[] waypointX;
+    private final double[] waypointY;
+    private final double[] tankHalfWidths;
+    private final double[] tankHalfHeights;
+
+    private int shellCount;
+    private long[] shellIds = new long[16];
+    private int[] shellPlayers = new int[16];
+    private ShellType[] shellTypes = new ShellType[16];
+    private double[] shellX = new double[16];
+    private double[] shellY = new double[16];
+    private double[] shellSpeedX = new double[16];
+    private double[] shellSpeedY = new double[16];
+
+    private int bonusCount;
+    private final long[] bonusIds = new long[MAX_BONUS_COUNT];
+    private final BonusType[] bonusTypes = new BonusType[MAX_BONUS_COUNT];
+    private final double[] bonusX = new double[MAX_BONUS_COUNT];
+    private final double[] bonusY = new double[MAX_BONUS_COUNT];
+
+    private final LineOfSight lineOfSight = new LineOfSight();
+
+    private long nextId;
+    private int tick;
+
+    private Tank[] tanks;
+    private Tank[] playerTanks;
+    private World world;
+
+    public SyntheticGame(int[] teamSizes, int tickCount, long seed) {
+        this.random = new Random(seed);
+        this.playerCount = teamSizes.length;
+        this.tickCount = tickCount;
+        this.playerNames = new String[playerCount];
+        this.scores = new int[playerCount];
+
+        int totalTankCount = 0;
+        for (int playerIndex = 0; playerIndex < playerCount; ++playerIndex) {
+            playerNames[playerIndex] = playerIndex == 0 ? "MyStrategy" : "SyntheticBot-" + playerIndex;
+            totalTankCount += teamSizes[playerIndex];
+        }
+
+        tankCount = totalTankCount;
+        tankIds = new long[tankCount];
+        tankPlayers = new int[tankCount];
+        teammateIndexes = new int[tankCount];
+        tankTypes = new TankType[tankCount];
+        tankX = new double[tankCount];
+        tankY = new double[tankCount];
+        tankSpeedX = new double[tankCount];
+        tankSpeedY = new double[tankCount];
+        tankAngles = new double[tankCount];
+        tankAngularSpeeds = new double[tankCount];
+        turretAngles = new double[tankCount];
+        crewHealth = new int[tankCount];
+        hullDurability = new int[tankCount];
+        remainingReloadingTime = new int[tankCount];
+        premiumShellCount = new int[tankCount];
+        waypointX = new double[tankCount];
+        waypointY = new double[tankCount];
+        tankHalfWidths = new double[tankCount];
+        tankHalfHeights = new double[tankCount];
+
+        double perimeter = 2 * (WORLD_WIDTH + WORLD_HEIGHT - 4 * SPAWN_MARGIN);
+        double playerOffset = random.nextDouble() * perimeter;
+        int tankIndex = 0;
+
+        for (int playerIndex = 0; playerIndex < playerCount; ++playerIndex) {
+            double playerPosition = playerOffset + playerIndex * perimeter / playerCount;
+
+            for (int teammateIndex = 0; teammateIndex < teamSizes[playerIndex]; ++teammateIndex) {
+                tankIds[tankIndex] = ++nextId;
+                tankPlayers[tankIndex] = playerIndex;
+                teammateIndexes[tankIndex] = teammateIndex;
+                tankTypes[tankIndex] = TankType.MEDIUM;
+                premiumShellCount[tankIndex] = 3;
+
+                setPerimeterPosition(tankIndex, (playerPosition + teammateIndex * 120) % perimeter);
+                setWaypoint(tankIndex);
+                ++tankIndex;
+            }
+        }
+
+        update();
+        resetHealth();
+    }
+
+    public static SyntheticGame create(String scenario, int tickCount, long seed) {
+        if ("crowded".equals(scenario)) {
+            return new SyntheticGame(new int[]{1, 1, 1, 1, 1, 1}, tickCount, seed);
+        }
+        if ("oneOnOne".equals(scenario)) {
+            return new SyntheticGame(new int[]{1, 1}, tickCount, seed);
+        }
+        if ("twoOnOne".equals(scenario)) {
+            return new SyntheticGame(new int[]{2, 1}, tickCount, seed);
+        }
+        if ("team".equals(scenario)) {
+            return new SyntheticGame(new int[]{3, 3}, tickCount, seed);
+        }
+        throw new IllegalArgumentException("Unknown scenario: " + scenario + ".");
+    }
+
+    public int getTeamSize() {
+        int teamSize = 0;
+        for (int tankIndex = 0; tankIndex < tankCount; ++tankIndex) {
+            if (tankPlayers[tankIndex] == 0) {
+                ++teamSize;
+            }
+        }
+        return teamSize;
+    }
+
+    public void setPlayerTankTypes(TankType[] types) {
+        for (int tankIndex = 0; tankIndex < tankCount; ++tankIndex) {
+            int teammateIndex = teammateIndexes[tankIndex];
+            if (tankPlayers[tankIndex] == 0 && types != null && teammateIndex < types.length
+                    && types[teammateIndex] != null) {
+                tankTypes[tankIndex] = types[teammateIndex];
+            }
+        }
+        update();
+        resetHealth();
+    }
+
+    public World getWorld() {
+        return world;
+    }
+
+    /**
+     * @return tanks of player 0 ordered by teammate index, as sent in the PLAYER_CONTEXT message
+     */
+    public Tank[] getPlayerTanks() {
+        return Arrays.copyOf(playerTanks, playerTanks.length);
+    }
+
+    public boolean isOver() {
+        if (tick >= tickCount) {
+            return true;
+        }
+
+        boolean playerAlive = false;
+        boolean enemyAlive = false;
+
+        for (int tankIndex = 0; tankIndex < tankCount; ++tankIndex) {
+            if (isAlive(tankIndex)) {
+                if (tankPlayers[tankIndex] == 0) {
+                    playerAlive = true;
+                } else {
+                    enemyAlive = true;
+                }
+            }
+        }
+
+        return !playerAlive || !enemyAlive;
+    }
+
+    /**
+     * Advances the game by one tick.
+     *
+     * @param moves moves of player 0 ordered by teammate index, may be {@code null}
+     */
+    public void step(Move[] moves) {
+        for (int tankIndex = 0; tankIndex < tankCount; ++tankIndex) {
+            if (!isAlive(tankIndex)) {
+                tankSpeedX[tankIndex] = 0;
+                tankSpeedY[tankIndex] = 0;
+                tankAngularSpeeds[tankIndex] = 0;
+                continue;
+            }
+
+            if (remainingReloadingTime[tankIndex] > 0) {
+                --remainingReloadingTime[tankIndex];
+            }
+
+            if (tankPlayers[tankIndex] == 0) {
+                int teammateIndex = teammateIndexes[tankIndex];
+                Move move = moves == null || teammateIndex >= moves.length ? null : moves[teammateIndex];
+                if (move != null) {
+                    applyMove(tankIndex, move.getLeftTrackPower(), move.getRightTrackPower(),
+                            move.getTurretTurn(), move.getFireType());
+                } else {
+                    applyMove(tankIndex, 0, 0, 0, null);
+                }
+            } else {
+                botMove(tankIndex);
+            }
+        }
+
+        moveShells();
+        updateBonuses();
+
+        ++tick;
+        update();
+    }
+
+    private void botMove(int tankIndex) {
+        double x = tankX[tankIndex];
+        double y = tankY[tankIndex];
+
+        if (hypot(waypointX[tankIndex] - x, waypointY[tankIndex] - y) < 50) {
+            setWaypoint(tankIndex);
+        }
+
+        double driveAngle = normalizeAngle(
+                atan2(waypointY[tankIndex] - y, waypointX[tankIndex] - x) - tankAngles[tankIndex]
+        );
+
+        double leftPower;
+        double rightPower;
+
+        if (abs(driveAngle) < PI / 6) {
+            leftPower = 1;
+            rightPower = 1;
+        } else if (driveAngle > 0) {
+            leftPower = 1;
+            rightPower = -0.5;
+        } else {
+            leftPower = -0.5;
+            rightPower = 1;
+        }
+
+        int target = -1;
+        double targetDistance = Double.MAX_VALUE;
+
+        for (int otherIndex = 0; otherIndex < tankCount; ++otherIndex) {
+            if (tankPlayers[otherIndex] != tankPlayers[tankIndex] && isAlive(otherIndex)) {
+                double distance = hypot(tankX[otherIndex] - x, tankY[otherIndex] - y);
+                if (distance < targetDistance) {
+                    targetDistance = distance;
+                    target = otherIndex;
+                }
+            }
+        }
+
+        double turretTurn = 0;
+        FireType fireType = FireType.NONE;
+
+        if (target != -1) {
+            double turretAngle = normalizeAngle(atan2(tankY[target] - y, tankX[target] - x)
+                    - tankAngles[tankIndex] - turretAngles[tankIndex]);
+            turretTurn = signum(turretAngle);
+            if (abs(turretAngle) < PI / 90 && random.nextInt(4) == 0) {
+                fireType = FireType.PREMIUM_PREFERRED;
+            }
+        }
+
+        applyMove(tankIndex, leftPower, rightPower, turretTurn, fireType);
+    }
+
+    private void applyMove(int tankIndex, double leftPower, double rightPower, double turretTurn, FireType fireType) {
+        Tank tank = tanks[tankIndex];
+
+        PhysicsSimulator.stepTank(
+                tankIndex, PhysicsSimulator.toTrackPower(leftPower, tank.getEngineRearPowerFactor()),
+                PhysicsSimulator.toTrackPower(rightPower, tank.getEngineRearPowerFactor()),
+                limit(turretTurn, tank.getTurretTurnSpeed()), tank.getEnginePower(), tank.getMass(),
+                tankHalfWidths[tankIndex], tank.getTurretMaxRelativeAngle(), WORLD_WIDTH, WORLD_HEIGHT,
+                tankX, tankY, tankSpeedX, tankSpeedY, tankAngles, tankAngularSpeeds, turretAngles
+        );
+
+        if (fireType != null && fireType != FireType.NONE && remainingReloadingTime[tankIndex] == 0) {
+            boolean premium = fireType != FireType.REGULAR && premiumShellCount[tankIndex] > 0;
+            if (premium || fireType != FireType.PREMIUM) {
+                fire(tankIndex, premium);
+            }
+        }
+    }
+
+    private void fire(int tankIndex, boolean premium) {
+        if (premium) {
+            --premiumShellCount[tankIndex];
+        }
+        remainingReloadingTime[tankIndex] = RELOADING_TIME;
+
+        if (shellCount == shellIds.length) {
+            int capacity = 2 * shellCount;
+            shellIds = Arrays.copyOf(shellIds, capacity);
+            shellPlayers = Arrays.copyOf(shellPlayers, capacity);
+            shellTypes = Arrays.copyOf(shellTypes, capacity);
+            shellX = Arrays.copyOf(shellX, capacity);
+            shellY = Arrays.copyOf(shellY, capacity);
+            shellSpeedX = Arrays.copyOf(shellSpeedX, capacity);
+            shellSpeedY = Arrays.copyOf(shellSpeedY, capacity);
+        }
+
+        double angle = tankAngles[tankIndex] + turretAngles[tankIndex];
+        double speed = premium ? PREMIUM_SHELL_SPEED : REGULAR_SHELL_SPEED;
+        double gunLength = tanks[tankIndex].getVirtualGunLength();
+
+        shellIds[shellCount] = ++nextId;
+        shellPlayers[shellCount] = tankPlayers[tankIndex];
+        shellTypes[shellCount] = premium ? ShellType.PREMIUM : ShellType.REGULAR;
+        shellX[shellCount] = tankX[tankIndex] + gunLength * cos(angle);
+        shellY[shellCount] = tankY[tankIndex] + gunLength * sin(angle);
+        shellSpeedX[shellCount] = speed * cos(angle);
+        shellSpeedY[shellCount] = speed * sin(angle);
+        ++shellCount;
+    }
+
+    private void moveShells() {
+        for (int shellIndex = 0; shellIndex < shellCount; ) {
+            double fromX = shellX[shellIndex];
+            double fromY = shellY[shellIndex];
+            shellX[shellIndex] += shellSpeedX[shellIndex];
+            shellY[shellIndex] += shellSpeedY[shellIndex];
+
+            boolean removed = shellX[shellIndex] < 0 || shellX[shellIndex] > WORLD_WIDTH
+                    || shellY[shellIndex] < 0 || shellY[shellIndex] > WORLD_HEIGHT;
+
+            if (!removed) {
+                int tankIndex = PhysicsSimulator.getHitTank(
+                        lineOfSight, fromX, fromY, shellX[shellIndex], shellY[shellIndex], tankCount,
+                        tankX, tankY, tankAngles, tankHalfWidths, tankHalfHeights
+                );
+                if (tankIndex != -1) {
+                    if (isAlive(tankIndex)) {
+                        int damage = shellTypes[shellIndex] == ShellType.PREMIUM
+                                ? PREMIUM_SHELL_DAMAGE : REGULAR_SHELL_DAMAGE;
+                        crewHealth[tankIndex] = max(0, crewHealth[tankIndex] - damage / 2);
+                        hullDurability[tankIndex] = max(0, hullDurability[tankIndex] - damage);
+                        if (shellPlayers[shellIndex] != tankPlayers[tankIndex]) {
+                            scores[shellPlayers[shellIndex]] += damage;
+                        }
+                    }
+                    removed = true;
+                }
+            }
+
+            if (removed) {
+                --shellCount;
+                shellIds[shellIndex] = shellIds[shellCount];
+                shellPlayers[shellIndex] = shellPlayers[shellCount];
+                shellTypes[shellIndex] = shellTypes[shellCount];
+                shellX[shellIndex] = shellX[shellCount];
+                shellY[shellIndex] = shellY[shellCount];
+                shellSpeedX[shellIndex] = shellSpeedX[shellCount];
+                shellSpeedY[shellIndex] = shellSpeedY[shellCount];
+            } else {
+                ++shellIndex;
+            }
+        }
+    }
+
+    private void updateBonuses() {
+        for (int bonusIndex = 0; bonusIndex < bonusCount; ) {
+            int picker = -1;
+
+            for (int tankIndex = 0; picker == -1 && tankIndex < tankCount; ++tankIndex) {
+                if (isAlive(tankIndex) && hypot(tankX[tankIndex] - bonusX[bonusIndex],
+                        tankY[tankIndex] - bonusY[bonusIndex]) < tanks[tankIndex].getHeight() / 2 + BONUS_SIZE / 2) {
+                    picker = tankIndex;
+                }
+            }
+
+            if (picker == -1) {
+                ++bonusIndex;
+                continue;
+            }
+
+            Tank tank = tanks[picker];
+            switch (bonusTypes[bonusIndex]) {
+                case MEDIKIT:
+                    crewHealth[picker] = min(tank.getCrewMaxHealth(), crewHealth[picker] + MEDIKIT_HEALTH);
+                    break;
+                case REPAIR_KIT:
+                    hullDurability[picker] = min(tank.getHullMaxDurability(),
+                            hullDurability[picker] + REPAIR_KIT_DURABILITY);
+                    break;
+                case AMMO_CRATE:
+                    premiumShellCount[picker] += AMMO_CRATE_SHELLS;
+                    break;
+            }
+
+            --bonusCount;
+            bonusIds[bonusIndex] = bonusIds[bonusCount];
+            bonusTypes[bonusIndex] = bonusTypes[bonusCount];
+            bonusX[bonusIndex] = bonusX[bonusCount];
+            bonusY[bonusIndex] = bonusY[bonusCount];
+        }
+
+        if (tick % BONUS_INTERVAL == 0 && bonusCount < MAX_BONUS_COUNT) {
+            BonusType[] types = BonusType.values();
+            bonusIds[bonusCount] = ++nextId;
+            bonusTypes[bonusCount] = types[random.nextInt(types.length)];
+            bonusX[bonusCount] = SPAWN_MARGIN + random.nextDouble() * (WORLD_WIDTH - 2 * SPAWN_MARGIN);
+            bonusY[bonusCount] = SPAWN_MARGIN + random.nextDouble() * (WORLD_HEIGHT - 2 * SPAWN_MARGIN);
+            ++bonusCount;
+        }
+    }
+
+    private void update() {
+        Player[] players = new Player[playerCount];
+        for (int playerIndex = 0; playerIndex < playerCount; ++playerIndex) {
+            players[playerIndex] = new Player(playerNames[playerIndex], scores[playerIndex], false);
+        }
+
+        tanks = new Tank[tankCount];
+        int teamSize = 0;
+        for (int tankIndex = 0; tankIndex < tankCount; ++tankIndex) {
+            tanks[tankIndex] = tankOf(tankIndex);
+            tankHalfWidths[tankIndex] = tanks[tankIndex].getWidth() / 2;
+            tankHalfHeights[tankIndex] = tanks[tankIndex].getHeight() / 2;
+            if (tankPlayers[tankIndex] == 0) {
+                ++teamSize;
+            }
+        }
+
+        playerTanks = new Tank[teamSize];
+        for (int tankIndex = 0; tankIndex < tankCount; ++tankIndex) {
+            if (tankPlayers[tankIndex] == 0) {
+                playerTanks[teammateIndexes[tankIndex]] = tanks[tankIndex];
+            }
+        }
+
+        Shell[] shells = new Shell[shellCount];
+        for (int shellIndex = 0; shellIndex < shellCount; ++shellIndex) {
+            boolean premium = shellTypes[shellIndex] == ShellType.PREMIUM;
+            shells[shellIndex] = new Shell(
+                    shellIds[shellIndex], playerNames[shellPlayers[shellIndex]],
+                    premium ? 15.0D : 22.5D, premium ? 5.0D : 7.5D, shellX[shellIndex], shellY[shellIndex],
+                    shellSpeedX[shellIndex], shellSpeedY[shellIndex],
+                    atan2(shellSpeedY[shellIndex], shellSpeedX[shellIndex]), 0.0D, shellTypes[shellIndex]
+            );
+        }
+
+        Bonus[] bonuses = new Bonus[bonusCount];
+        for (int bonusIndex = 0; bonusIndex < bonusCount; ++bonusIndex) {
+            bonuses[bonusIndex] = new Bonus(
+                    bonusIds[bonusIndex], BONUS_SIZE, BONUS_SIZE, bonusX[bonusIndex], bonusY[bonusIndex],
+                    bonusTypes[bonusIndex]
+            );
+        }
+
+        world = new World(tick, WORLD_WIDTH, WORLD_HEIGHT, players, new Obstacle[0], tanks, shells, bonuses);
+    }
+
+    private Tank tankOf(int tankIndex) {
+        return new Tank(
+                tankIds[tankIndex], playerNames[tankPlayers[tankIndex]], teammateIndexes[tankIndex],
+                tankX[tankIndex], tankY[tankIndex], tankSpeedX[tankIndex], tankSpeedY[tankIndex],
+                tankAngles[tankIndex], tankAngularSpeeds[tankIndex], turretAngles[tankIndex],
+                crewHealth[tankIndex], hullDurability[tankIndex], RELOADING_TIME, remainingReloadingTime[tankIndex],
+                premiumShellCount[tankIndex], tankPlayers[tankIndex] == 0, tankTypes[tankIndex]
+        );
+    }
+
+    private void resetHealth() {
+        for (int tankIndex = 0; tankIndex < tankCount; ++tankIndex) {
+            crewHealth[tankIndex] = tanks[tankIndex].getCrewMaxHealth();
+            hullDurability[tankIndex] = tanks[tankIndex].getHullMaxDurability();
+        }
+        update();
+    }
+
+    private boolean isAlive(int tankIndex) {
+        return crewHealth[tankIndex] > 0 && hullDurability[tankIndex] > 0;
+    }
+
+    private void setPerimeterPosition(int tankIndex, double position) {
+        double width = WORLD_WIDTH - 2 * SPAWN_MARGIN;
+        double height = WORLD_HEIGHT - 2 * SPAWN_MARGIN;
+
+        if (position < width) {
+            tankX[tankIndex] = SPAWN_MARGIN + position;
+            tankY[tankIndex] = SPAWN_MARGIN;
+        } else if (position < width + height) {
+            tankX[tankIndex] = WORLD_WIDTH - SPAWN_MARGIN;
+            tankY[tankIndex] = SPAWN_MARGIN + position - width;
+        } else if (position < 2 * width + height) {
+            tankX[tankIndex] = WORLD_WIDTH - SPAWN_MARGIN - (position - width - height);
+            tankY[tankIndex] = WORLD_HEIGHT - SPAWN_MARGIN;
+        } else {
+            tankX[tankIndex] = SPAWN_MARGIN;
+            tankY[tankIndex] = WORLD_HEIGHT - SPAWN_MARGIN - (position - 2 * width - height);
+        }
+
+        tankAngles[tankIndex] = atan2(WORLD_HEIGHT / 2 - tankY[tankIndex], WORLD_WIDTH / 2 - tankX[tankIndex]);
+    }
+
+    private void setWaypoint(int tankIndex) {
+        waypointX[tankIndex] = SPAWN_MARGIN + random.nextDouble() * (WORLD_WIDTH - 2 * SPAWN_MARGIN);
+        waypointY[tankIndex] = SPAWN_MARGIN + random.nextDouble() * (WORLD_HEIGHT - 2 * SPAWN_MARGIN);
+    }
+
+    private static double limit(double value, double bound) {
+        return max(-bound, min(bound, value));
+    }
+
+    private static double normalizeAngle(double angle) {
+        while (angle > PI) {
+            angle -= 2.0D * PI;
+        }
+
+        while (angle < -PI) {
+            angle += 2.0D * PI;
+        }
+
+        return angle;
+    }
+}
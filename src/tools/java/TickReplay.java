@@ -0,0 +1,225 @@
+import model.FastMath;
+import model.FireType;
+import model.Move;
+import model.PlayerContext;
+import model.Tank;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Memory-mapped view of a game written by {@link TickRecorder}. Any tick is reached in constant time through the
+ * offset index.
+ * <p>
+ * Usage: {@code TickReplay file...} plays every recorded tick through {@link MyStrategy} and reports ticks per
+ * second and the number of ticks where the strategy answered differently from the recording. The replay takes the
+ * {@code codetanks.recycleModel}, {@code codetanks.fastMath}, {@code codetanks.parallel} and
+ * {@code codetanks.tickBudget} properties the way {@link Runner} does.
+ */
+public final class TickReplay {
+    private static final FireType[] FIRE_TYPES = FireType.values();
+
+    private final String path;
+    private final MappedByteBuffer data;
+    private final MappedByteBuffer index;
+    private final int tickCount;
+
+    public static void main(String[] args) throws IOException {
+        for (String path : args) {
+            new TickReplay(path).replay();
+        }
+    }
+
+    public TickReplay(String path) throws IOException {
+        this.path = path;
+        data = map(path);
+        index = map(path + TickRecorder.INDEX_SUFFIX);
+        tickCount = index.capacity() / TickRecorder.LONG_SIZE_BYTES;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public int getTickCount() {
+        return tickCount;
+    }
+
+    /**
+     * @return the number of tanks controlled by the strategy in the first recorded tick
+     */
+    public int getTeamSize() throws IOException {
+        if (tickCount == 0) {
+            return 0;
+        }
+
+        return new RemoteProcessClient(getPlayerContextMessage(0)).readPlayerContext().getTanks().length;
+    }
+
+    /**
+     * @return the PLAYER_CONTEXT message of the tick exactly as the strategy received it
+     */
+    public ByteBuffer getPlayerContextMessage(int tick) {
+        return slice(getFrameOffset(tick));
+    }
+
+    /**
+     * @return the MOVES message the strategy sent in reply
+     */
+    public ByteBuffer getMovesMessage(int tick) {
+        int contextOffset = getFrameOffset(tick);
+        return slice(contextOffset + TickRecorder.INTEGER_SIZE_BYTES + data.getInt(contextOffset));
+    }
+
+    public Move[] readMoves(int tick) {
+        ByteBuffer message = getMovesMessage(tick);
+        message.get();
+
+        int moveCount = message.getInt();
+        if (moveCount < 0) {
+            return null;
+        }
+
+        Move[] moves = new Move[moveCount];
+
+        for (int moveIndex = 0; moveIndex < moveCount; ++moveIndex) {
+            if (message.get() == 1) {
+                Move move = new Move();
+                move.setLeftTrackPower(message.getDouble());
+                move.setRightTrackPower(message.getDouble());
+                move.setTurretTurn(message.getDouble());
+
+                byte ordinal = message.get();
+                move.setFireType(ordinal == -1 ? null : FIRE_TYPES[ordinal]);
+
+                moves[moveIndex] = move;
+            }
+        }
+
+        return moves;
+    }
+
+    public void replay() throws IOException {
+        FastMath.setEnabled(Boolean.getBoolean(Runner.FAST_MATH_PROPERTY));
+        replay(
+                Boolean.getBoolean(Runner.RECYCLE_MODEL_PROPERTY), Boolean.getBoolean(Runner.PARALLEL_PROPERTY),
+                Runner.getTickBudgetNanos()
+        );
+    }
+
+    /**
+     * Replays with the given options and the current {@link FastMath} mode.
+     *
+     * @param tickBudgetNanos wall-clock budget of a tick, 0 for none
+     * @return number of ticks with changed moves
+     */
+    int replay(boolean recycleModel, boolean parallel, long tickBudgetNanos) throws IOException {
+        if (tickCount == 0) {
+            System.out.println("No ticks recorded in " + path + '.');
+            return 0;
+        }
+
+        RemoteProcessClient remoteProcessClient = new RemoteProcessClient(getPlayerContextMessage(0));
+        remoteProcessClient.setRecycleModel(recycleModel);
+
+        int teamSize = getTeamSize();
+        Strategy[] strategies = new Strategy[teamSize];
+
+        for (int strategyIndex = 0; strategyIndex < teamSize; ++strategyIndex) {
+            strategies[strategyIndex] = new MyStrategy();
+            strategies[strategyIndex].selectTank(strategyIndex, teamSize);
+        }
+
+        StrategyExecutor strategyExecutor = new StrategyExecutor(strategies, parallel, tickBudgetNanos);
+        Move[] moves = new Move[teamSize];
+        int replayedTickCount = 0;
+        int changedTickCount = 0;
+        long startTime = System.nanoTime();
+
+        try {
+            for (int tick = 0; tick < tickCount; ++tick) {
+                remoteProcessClient.setInput(getPlayerContextMessage(tick));
+                PlayerContext playerContext = remoteProcessClient.readPlayerContext();
+
+                Tank[] playerTanks = playerContext.getTanks();
+                if (playerTanks.length != teamSize) {
+                    break;
+                }
+
+                strategyExecutor.move(playerTanks, playerContext.getWorld(), moves);
+
+                ++replayedTickCount;
+                if (!equals(moves, readMoves(tick))) {
+                    ++changedTickCount;
+                }
+            }
+        } finally {
+            strategyExecutor.close();
+        }
+
+        long elapsedTime = System.nanoTime() - startTime;
+
+        System.out.println(String.format(
+                "Replayed %d ticks of %s in %.3f s: %.1f ticks/s, %d ticks with changed moves.",
+                replayedTickCount, path, elapsedTime / 1.0E9, replayedTickCount * 1.0E9 / elapsedTime,
+                changedTickCount
+        ));
+        return changedTickCount;
+    }
+
+    private int getFrameOffset(int tick) {
+        if (tick < 0 || tick >= tickCount) {
+            throw new IndexOutOfBoundsException(String.format("Tick %d is not recorded in %s.", tick, path));
+        }
+
+        return (int) index.getLong(tick * TickRecorder.LONG_SIZE_BYTES);
+    }
+
+    private ByteBuffer slice(int lengthOffset) {
+        ByteBuffer buffer = data.duplicate();
+        int offset = lengthOffset + TickRecorder.INTEGER_SIZE_BYTES;
+        buffer.limit(offset + data.getInt(lengthOffset)).position(offset);
+        return buffer.slice().order(TickRecorder.BYTE_ORDER);
+    }
+
+    static boolean equals(Move[] moves, Move[] recordedMoves) {
+        if (recordedMoves == null || moves.length != recordedMoves.length) {
+            return false;
+        }
+
+        for (int moveIndex = 0; moveIndex < moves.length; ++moveIndex) {
+            Move move = moves[moveIndex];
+            Move recordedMove = recordedMoves[moveIndex];
+
+            if (recordedMove == null
+                    || Double.compare(move.getLeftTrackPower(), recordedMove.getLeftTrackPower()) != 0
+                    || Double.compare(move.getRightTrackPower(), recordedMove.getRightTrackPower()) != 0
+                    || Double.compare(move.getTurretTurn(), recordedMove.getTurretTurn()) != 0
+                    || move.getFireType() != recordedMove.getFireType()) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static MappedByteBuffer map(String path) throws IOException {
+        RandomAccessFile file = new RandomAccessFile(path, "r");
+
+        try {
+            long size = file.length();
+            if (size > Integer.MAX_VALUE) {
+                throw new IOException(String.format("Can't map %s of %d bytes.", path, size));
+            }
+
+            MappedByteBuffer buffer = file.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(TickRecorder.BYTE_ORDER);
+            return buffer;
+        } finally {
+            file.close();
+        }
+    }
+}